@@ -0,0 +1,89 @@
+package com.bramerlabs.engine.benchmarks;
+
+import com.bramerlabs.engine.graphics.Frustum;
+import com.bramerlabs.engine.math.Matrix4f;
+import com.bramerlabs.engine.math.Vector3f;
+import com.bramerlabs.engine.objects.EntityStore;
+import com.bramerlabs.engine.objects.GameObject;
+import com.bramerlabs.engine.objects.Hitbox;
+import com.bramerlabs.engine.objects.game_objects.Cube;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntityScanBenchmark {
+
+    // the texture is never loaded - meshes are not created without a GL context
+    private static final String TEXTURE = "/textures/3ttest.png";
+
+    // the number of cubes in the level
+    @Param({"1000", "100000"})
+    private int cubes;
+
+    private List<GameObject> objects;
+    private EntityStore store;
+    private Frustum frustum;
+    private Hitbox box;
+    private int[] rows;
+
+    @Setup
+    public void setup() {
+        // lay the cubes out as a square floor around the origin
+        int side = (int) Math.ceil(Math.sqrt(cubes));
+        objects = new ArrayList<>();
+        store = new EntityStore();
+        for (int i = 0; i < cubes; i++) {
+            // the objects compared against the store stay out of it, so they keep their values in their own fields
+            objects.add(new Cube(new Vector3f(i % side - side / 2, 0, i / side - side / 2), TEXTURE));
+            store.add(new Cube(new Vector3f(i % side - side / 2, 0, i / side - side / 2), TEXTURE));
+        }
+        rows = new int[cubes];
+
+        // a camera above the floor looking down the negative z axis, seeing about half of it
+        frustum = new Frustum();
+        frustum.update(Matrix4f.projection(70, 16 / 9f, 0.1f, 1000f), Matrix4f.view(new Vector3f(0, 5, 0), new Vector3f(0)));
+
+        // a box around the player's feet, the size of a collision query
+        box = new Hitbox(-1, 1, -0.5f, 0.6f, -1, 1);
+    }
+
+    @Benchmark
+    public int cullObjects() {
+        int visible = 0;
+        for (int i = 0; i < objects.size(); i++) {
+            if (frustum.intersects(objects.get(i).getHitbox())) {
+                visible++;
+            }
+        }
+        return visible;
+    }
+
+    @Benchmark
+    public int cullStore() {
+        return store.cull(frustum, rows);
+    }
+
+    @Benchmark
+    public int queryObjects() {
+        int found = 0;
+        for (int i = 0; i < objects.size(); i++) {
+            if (objects.get(i).getHitbox().intersects(box)) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int queryStore() {
+        return store.query(box, rows);
+    }
+}
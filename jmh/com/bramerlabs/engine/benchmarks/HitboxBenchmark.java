@@ -0,0 +1,80 @@
+package com.bramerlabs.engine.benchmarks;
+
+import com.bramerlabs.engine.objects.Hitbox;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HitboxBenchmark {
+
+    // the number of boxes tested per invocation
+    private static final int COUNT = 1024;
+
+    private Hitbox box;
+    private Hitbox[] others;
+
+    // the same boxes stored in one column per hitbox value constant, every fourth one a one-way platform
+    private float[][] columns;
+    private int[] flags;
+    private float[] overlaps;
+    private long[] hits;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        box = new Hitbox(-0.5f, 0.5f, -0.5f, 0.5f, -0.5f, 0.5f);
+        others = new Hitbox[COUNT];
+        for (int i = 0; i < COUNT; i++) {
+            float x = random.nextFloat() * 8 - 4, y = random.nextFloat() * 8 - 4, z = random.nextFloat() * 8 - 4;
+            others[i] = new Hitbox(x - 0.5f, x + 0.5f, y - 0.5f, y + 0.5f, z - 0.5f, z + 0.5f);
+        }
+
+        columns = new float[Hitbox.NUM_VAL][COUNT];
+        flags = new int[COUNT];
+        overlaps = new float[COUNT];
+        hits = new long[(COUNT + 63) / 64];
+        for (int i = 0; i < COUNT; i++) {
+            Hitbox other = others[i];
+            for (int v = 0; v < Hitbox.NUM_VAL; v++) {
+                columns[v][i] = other.get(v);
+            }
+            if (i % 4 == 0) {
+                flags[i] = Hitbox.IGNORE_X_DIRECTION | Hitbox.IGNORE_Y_DIRECTION_NEGATIVE | Hitbox.IGNORE_Z_DIRECTION;
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COUNT)
+    public void intersects(Blackhole blackhole) {
+        for (Hitbox other : others) {
+            blackhole.consume(box.intersects(other));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COUNT)
+    public int intersectsFlagged() {
+        int found = 0;
+        for (int i = 0; i < COUNT; i++) {
+            if (box.intersects(columns, i, flags[i])) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COUNT)
+    public int intersectsBatch() {
+        return box.intersects(columns, flags, COUNT, overlaps, hits);
+    }
+}
@@ -0,0 +1,78 @@
+package com.bramerlabs.engine.benchmarks;
+
+import com.bramerlabs.engine.math.Matrix4f;
+import com.bramerlabs.engine.math.Vector3f;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MathBenchmark {
+
+    // inputs
+    private Vector3f position, rotation, scale;
+    private Matrix4f a, b;
+
+    // outputs for the destination variants
+    private Matrix4f matrixDest;
+    private Vector3f vectorDest;
+
+    @Setup
+    public void setup() {
+        position = new Vector3f(4, 1.5f, -2);
+        rotation = new Vector3f(30, 45, 10);
+        scale = new Vector3f(4, 1, 4);
+        a = Matrix4f.transform(position, rotation, scale);
+        b = Matrix4f.view(position, rotation);
+        matrixDest = new Matrix4f();
+        vectorDest = new Vector3f(0);
+    }
+
+    @Benchmark
+    public Matrix4f multiply() {
+        return Matrix4f.multiply(a, b);
+    }
+
+    @Benchmark
+    public Matrix4f mulInto() {
+        return Matrix4f.mulInto(a, b, matrixDest);
+    }
+
+    @Benchmark
+    public Matrix4f transform() {
+        return Matrix4f.transform(position, rotation, scale);
+    }
+
+    @Benchmark
+    public Matrix4f transformInto() {
+        return Matrix4f.transform(position, rotation, scale, matrixDest);
+    }
+
+    @Benchmark
+    public Matrix4f view() {
+        return Matrix4f.view(position, rotation);
+    }
+
+    @Benchmark
+    public Matrix4f viewInto() {
+        return Matrix4f.view(position, rotation, matrixDest);
+    }
+
+    @Benchmark
+    public Vector3f vectorArithmetic() {
+        return Vector3f.normalize(Vector3f.add(Vector3f.scale(position, 0.5f), Vector3f.subtract(rotation, scale)));
+    }
+
+    @Benchmark
+    public Vector3f vectorArithmeticInto() {
+        Vector3f.scale(position, 0.5f, vectorDest);
+        Vector3f.add(vectorDest, rotation, vectorDest);
+        Vector3f.subtract(vectorDest, scale, vectorDest);
+        return Vector3f.normalize(vectorDest, vectorDest);
+    }
+}
@@ -0,0 +1,51 @@
+package com.bramerlabs.engine.benchmarks;
+
+import com.bramerlabs.engine.graphics.Vertex;
+import com.bramerlabs.engine.graphics.VertexFormat;
+import com.bramerlabs.engine.objects.game_objects.Cube;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MeshPackingBenchmark {
+
+    // the number of cubes packed into one mesh
+    @Param({"1", "1000"})
+    private int cubes;
+
+    private Vertex[] vertices;
+    private ByteBuffer standard, compact;
+
+    @Setup
+    public void setup() {
+        Vertex[] cube = Cube.makeMesh("/textures/3ttest.png").getVertices();
+        vertices = new Vertex[cube.length * cubes];
+        for (int i = 0; i < cubes; i++) {
+            System.arraycopy(cube, 0, vertices, i * cube.length, cube.length);
+        }
+
+        // direct buffers stand in for MemoryUtil, which needs the LWJGL natives
+        standard = ByteBuffer.allocateDirect(vertices.length * VertexFormat.STANDARD.getStride()).order(ByteOrder.nativeOrder());
+        compact = ByteBuffer.allocateDirect(vertices.length * VertexFormat.COMPACT.getStride()).order(ByteOrder.nativeOrder());
+    }
+
+    @Benchmark
+    public ByteBuffer packStandard() {
+        standard.clear();
+        return VertexFormat.STANDARD.pack(vertices, standard);
+    }
+
+    @Benchmark
+    public ByteBuffer packCompact() {
+        compact.clear();
+        return VertexFormat.COMPACT.pack(vertices, compact);
+    }
+}
@@ -0,0 +1,61 @@
+package com.bramerlabs.engine.benchmarks;
+
+import com.bramerlabs.engine.math.Vector3f;
+import com.bramerlabs.engine.objects.game_objects.Cube;
+import com.bramerlabs.engine.objects.physics.Body;
+import com.bramerlabs.engine.objects.physics.PhysicsWorld;
+import com.bramerlabs.engine.objects.voxel.VoxelWorld;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PhysicsBenchmark {
+
+    // the texture is never loaded - meshes are not created without a GL context
+    private static final String TEXTURE = "/textures/3ttest.png";
+
+    // the number of bodies
+    @Param({"1000", "10000"})
+    private int bodies;
+
+    // the number of threads stepping islands
+    @Param({"1", "4"})
+    private int threads;
+
+    private PhysicsWorld physics;
+
+    @Setup
+    public void setup() {
+        // a floor wide enough that the bodies mostly fall and slide in small islands
+        int side = (int) Math.ceil(Math.sqrt(bodies)) * 2;
+        VoxelWorld world = new VoxelWorld();
+        world.fill(-side, side, 0, 0, -side, side, (short) 1);
+
+        Random random = new Random(1);
+        physics = new PhysicsWorld(world, threads);
+        for (int i = 0; i < bodies; i++) {
+            Cube cube = new Cube(new Vector3f(random.nextInt(side * 2) - side, 1 + random.nextInt(4), random.nextInt(side * 2) - side), TEXTURE);
+            Body body = new Body(cube);
+            body.setHorizontalVelocity(random.nextFloat() * 4 - 2, random.nextFloat() * 4 - 2);
+            physics.add(body);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        physics.destroy();
+    }
+
+    @Benchmark
+    public int step() {
+        physics.step(1 / 60f);
+        return physics.getIslandCount();
+    }
+}
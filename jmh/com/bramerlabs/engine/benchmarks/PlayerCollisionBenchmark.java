@@ -0,0 +1,69 @@
+package com.bramerlabs.engine.benchmarks;
+
+import com.bramerlabs.engine.io.window.Input;
+import com.bramerlabs.engine.math.Vector3f;
+import com.bramerlabs.engine.objects.Camera;
+import com.bramerlabs.engine.objects.SpatialGrid;
+import com.bramerlabs.engine.objects.game_objects.Cube;
+import com.bramerlabs.engine.objects.game_objects.Player;
+import com.bramerlabs.engine.objects.voxel.VoxelWorld;
+import org.lwjgl.glfw.GLFW;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlayerCollisionBenchmark {
+
+    // the texture is never loaded - meshes are not created without a GL context
+    private static final String TEXTURE = "/textures/3ttest.png";
+
+    // the number of cubes in the level
+    @Param({"17", "1000", "100000"})
+    private int cubes;
+
+    private SpatialGrid world;
+    private VoxelWorld voxels;
+    private Player player;
+
+    @Setup
+    public void setup() {
+        // lay the cubes out as a square floor around the origin
+        int side = (int) Math.ceil(Math.sqrt(cubes));
+        world = new SpatialGrid(4.0f);
+        voxels = new VoxelWorld();
+        for (int i = 0; i < cubes; i++) {
+            world.insert(new Cube(new Vector3f(i % side - side / 2, 0, i / side - side / 2), TEXTURE));
+            voxels.setBlock(i % side - side / 2, 0, i / side - side / 2, (short) 1);
+        }
+
+        // hold the forward key so the player moves and collides every tick
+        Input input = new Input();
+        input.setKeyDown(GLFW.GLFW_KEY_W, true);
+        player = new Player(new Vector3f(0, 1, 0), TEXTURE);
+        player.addInput(input);
+        player.addCamera(new Camera(new Vector3f(0, 0, 2), new Vector3f(0, 0, 0), input));
+    }
+
+    @Benchmark
+    public Vector3f update() {
+        // keep the player in the same spot so every invocation does the same work
+        player.getPosition().set(0, 1, 0);
+        player.setPosition(player.getPosition());
+        player.update(world, 1 / 60f);
+        return player.getPosition();
+    }
+
+    @Benchmark
+    public Vector3f updateVoxels() {
+        player.getPosition().set(0, 1, 0);
+        player.setPosition(player.getPosition());
+        player.update(voxels, 1 / 60f);
+        return player.getPosition();
+    }
+}
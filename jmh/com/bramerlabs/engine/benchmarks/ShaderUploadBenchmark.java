@@ -0,0 +1,74 @@
+package com.bramerlabs.engine.benchmarks;
+
+import com.bramerlabs.engine.graphics.Shader;
+import com.bramerlabs.engine.math.Matrix4f;
+import com.bramerlabs.engine.math.Vector3f;
+import org.lwjgl.system.MemoryUtil;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.lwjgl.util.DebugAllocator=true")
+public class ShaderUploadBenchmark {
+
+    // the number of matrices uploaded by each iteration
+    private static final int UPLOADS = 1_000_000;
+
+    // the debug allocator tracks every live MemoryUtil allocation, so the off-heap memory in use can be summed
+    // the LWJGL natives must be on the library path - only the shader sources are loaded, no OpenGL context is needed
+    private Shader shader;
+    private Matrix4f[] matrices = new Matrix4f[64];
+
+    // the off-heap memory in use once the first matrix was uploaded
+    private long liveBytes;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        shader = new Shader("/shaders/mainVertex.glsl", "/shaders/mainFragment.glsl");
+        for (int i = 0; i < matrices.length; i++) {
+            matrices[i] = Matrix4f.transform(new Vector3f(i, 0, -i), new Vector3f(0, i, 0), new Vector3f(1, 1, 1));
+        }
+
+        // the first upload allocates the memory every later upload reuses
+        shader.stage(matrices[0]);
+        liveBytes = liveBytes();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(UPLOADS)
+    public void upload(Blackhole blackhole) {
+        for (int i = 0; i < UPLOADS; i++) {
+            blackhole.consume(shader.stage(matrices[i & (matrices.length - 1)]));
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void check() {
+        long live = liveBytes();
+        if (live != liveBytes) {
+            throw new IllegalStateException("Off-heap memory went from " + liveBytes + " to " + live + " bytes over " + UPLOADS + " uploads.");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void release() {
+        // destroying the shader needs an OpenGL context, so only the upload memory it returns is freed
+        MemoryUtil.memFree(shader.stage(matrices[0]));
+    }
+
+    /**
+     * helper method to sum the off-heap memory allocated through MemoryUtil and not yet freed
+     * @return - the number of bytes
+     */
+    private static long liveBytes() {
+        long[] bytes = new long[1];
+        MemoryUtil.memReport((address, memory, threadId, threadName, stacktrace) -> bytes[0] += memory);
+        return bytes[0];
+    }
+}
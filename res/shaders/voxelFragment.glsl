@@ -0,0 +1,23 @@
+#version 460 core
+
+in vec2 passTextureCoord;
+in vec3 passWorldPosition;
+
+out vec4 outColor;
+
+uniform sampler2D tex;
+
+// the tiles of the block texture, laid out like the cube texture
+const vec2 TOP_TILE = vec2(0.0, 0.0);
+const vec2 SIDE_TILE = vec2(0.5, 0.0);
+const vec2 BOTTOM_TILE = vec2(0.5, 0.5);
+const float TILE_SIZE = 0.5;
+
+void main() {
+    // merged faces span several blocks, so the face is found from how the position changes across the screen
+    vec3 normal = cross(dFdx(passWorldPosition), dFdy(passWorldPosition));
+    vec2 tile = abs(normal.y) < max(abs(normal.x), abs(normal.z)) ? SIDE_TILE : (normal.y > 0.0 ? TOP_TILE : BOTTOM_TILE);
+
+    // the texture coordinates count blocks, so the tile repeats once per block
+    outColor = texture(tex, tile + fract(passTextureCoord) * TILE_SIZE);
+}
@@ -0,0 +1,29 @@
+#version 460 core
+
+layout(location = 0) in vec3 position;
+layout(location = 1) in vec2 textureCoord;
+
+out vec2 passTextureCoord;
+out vec3 passWorldPosition;
+
+// the model matrices of the objects drawn this frame, one per draw, selected by the base instance of the draw
+layout(std430, row_major, binding = 0) readonly buffer Transforms {
+    mat4 models[];
+};
+
+// the per-frame data shared by every shader, updated once per frame
+layout(std140, row_major, binding = 0) uniform FrameData {
+    mat4 view;
+    mat4 projection;
+    mat4 viewProjection;
+    vec3 cameraPosition;
+    float time;
+};
+
+void main() {
+    mat4 model = models[gl_BaseInstance + gl_InstanceID];
+    vec4 worldPosition = model * vec4(position, 1.0);
+    gl_Position = viewProjection * worldPosition;
+    passTextureCoord = textureCoord;
+    passWorldPosition = worldPosition.xyz;
+}
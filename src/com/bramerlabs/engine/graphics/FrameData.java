@@ -0,0 +1,126 @@
+package com.bramerlabs.engine.graphics;
+
+import com.bramerlabs.engine.math.Matrix4f;
+import com.bramerlabs.engine.math.Vector3f;
+import com.bramerlabs.engine.objects.Camera;
+import org.lwjgl.opengl.GL15;
+import org.lwjgl.opengl.GL30;
+import org.lwjgl.opengl.GL31;
+import org.lwjgl.system.MemoryUtil;
+
+import java.nio.FloatBuffer;
+
+public class FrameData {
+
+    // the uniform buffer binding point of the FrameData block, shared by every shader
+    public static final int BINDING = 0;
+
+    // the number of floats in one matrix
+    private static final int MATRIX_FLOATS = Matrix4f.SIZE * Matrix4f.SIZE;
+
+    // the std140 layout of the block - three matrices, then the camera position with the time packed into its fourth slot
+    private static final int VIEW_OFFSET = 0;
+    private static final int PROJECTION_OFFSET = VIEW_OFFSET + MATRIX_FLOATS;
+    private static final int VIEW_PROJECTION_OFFSET = PROJECTION_OFFSET + MATRIX_FLOATS;
+    private static final int CAMERA_OFFSET = VIEW_PROJECTION_OFFSET + MATRIX_FLOATS;
+    private static final int TIME_OFFSET = CAMERA_OFFSET + 3;
+    private static final int FLOATS = TIME_OFFSET + 1;
+
+    // the uniform buffer and the off-heap memory it is filled from
+    private int buffer;
+    private FloatBuffer data;
+
+    // the values of the current frame, kept for culling and sorting on the CPU
+    private Matrix4f view = new Matrix4f(), projection = new Matrix4f(), viewProjection = new Matrix4f();
+    private Vector3f cameraPosition = new Vector3f(0);
+    private float time;
+
+    /**
+     * creates the uniform buffer and binds it to the shared binding point
+     */
+    public void create() {
+        data = MemoryUtil.memAllocFloat(FLOATS);
+        buffer = GL15.glGenBuffers();
+        GL15.glBindBuffer(GL31.GL_UNIFORM_BUFFER, buffer);
+        GL15.glBufferData(GL31.GL_UNIFORM_BUFFER, (long) FLOATS * Float.BYTES, GL15.GL_DYNAMIC_DRAW);
+        GL15.glBindBuffer(GL31.GL_UNIFORM_BUFFER, 0);
+        GL30.glBindBufferBase(GL31.GL_UNIFORM_BUFFER, BINDING, buffer);
+    }
+
+    /**
+     * computes the camera matrices and uploads them - call once per frame, before anything is drawn
+     * @param camera - the camera the frame is viewed from
+     * @param projection - the projection matrix of the window
+     * @param time - the time since the program started, in seconds
+     */
+    public void update(Camera camera, Matrix4f projection, float time) {
+        Matrix4f.view(camera.getPosition(), camera.getRotation(), view);
+        this.projection.set(projection);
+
+        // mulInto(a, b) computes b * a, so mulInto(view, projection) is projection * view - the view is applied first
+        Matrix4f.mulInto(view, projection, viewProjection);
+        cameraPosition.set(camera.getPosition());
+        this.time = time;
+
+        // the block is row_major, so the matrices are copied as they are stored
+        data.position(VIEW_OFFSET);
+        data.put(view.getAll());
+        data.put(this.projection.getAll());
+        data.put(viewProjection.getAll());
+        data.put(cameraPosition.getX()).put(cameraPosition.getY()).put(cameraPosition.getZ());
+        data.put(time);
+        data.flip();
+
+        GL15.glBindBuffer(GL31.GL_UNIFORM_BUFFER, buffer);
+        GL15.glBufferSubData(GL31.GL_UNIFORM_BUFFER, 0, data);
+        GL15.glBindBuffer(GL31.GL_UNIFORM_BUFFER, 0);
+    }
+
+    /**
+     * getter method
+     * @return - the view matrix of the current frame
+     */
+    public Matrix4f getView() {
+        return this.view;
+    }
+
+    /**
+     * getter method
+     * @return - the projection matrix of the current frame
+     */
+    public Matrix4f getProjection() {
+        return this.projection;
+    }
+
+    /**
+     * getter method
+     * @return - the projection matrix times the view matrix of the current frame
+     */
+    public Matrix4f getViewProjection() {
+        return this.viewProjection;
+    }
+
+    /**
+     * getter method
+     * @return - the position of the camera in the current frame
+     */
+    public Vector3f getCameraPosition() {
+        return this.cameraPosition;
+    }
+
+    /**
+     * getter method
+     * @return - the time of the current frame, in seconds
+     */
+    public float getTime() {
+        return this.time;
+    }
+
+    /**
+     * releases the uniform buffer
+     */
+    public void destroy() {
+        GL15.glDeleteBuffers(buffer);
+        MemoryUtil.memFree(data);
+    }
+}
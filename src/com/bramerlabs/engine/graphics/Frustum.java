@@ -0,0 +1,86 @@
+package com.bramerlabs.engine.graphics;
+
+import com.bramerlabs.engine.math.Matrix4f;
+import com.bramerlabs.engine.objects.Hitbox;
+
+public class Frustum {
+
+    // the number of planes bounding the frustum - left, right, bottom, top, near, far
+    private static final int NUM_PLANES = 6;
+
+    // the planes, stored as (a, b, c, d) with a * x + b * y + c * z + d >= 0 on the inside
+    private float[] planes = new float[NUM_PLANES * 4];
+
+    // the combined projection and view matrix
+    private Matrix4f viewProjection = new Matrix4f();
+
+    /**
+     * extracts the frustum planes from a projection and a view matrix
+     * @param projection - the projection matrix
+     * @param view - the view matrix
+     */
+    public void update(Matrix4f projection, Matrix4f view) {
+        // mulInto(a, b) computes b * a, so mulInto(view, projection) is projection * view - the view is applied first
+        update(Matrix4f.mulInto(view, projection, viewProjection));
+    }
+
+    /**
+     * extracts the frustum planes from a combined projection and view matrix
+     * @param viewProjection - the projection matrix times the view matrix
+     */
+    public void update(Matrix4f viewProjection) {
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 4; j++) {
+                float w = viewProjection.get(j, 3);
+                float v = viewProjection.get(j, i);
+                planes[(i * 2) * 4 + j] = w + v;
+                planes[(i * 2 + 1) * 4 + j] = w - v;
+            }
+        }
+    }
+
+    /**
+     * checks if an axis aligned box is at least partly inside the frustum - may report boxes just outside a corner as inside
+     * @param box - the box
+     * @return - true if the box may be visible
+     */
+    public boolean intersects(Hitbox box) {
+        return intersects(box.xMin, box.xMax, box.yMin, box.yMax, box.zMin, box.zMax);
+    }
+
+    /**
+     * checks if an axis aligned box stored in columns is at least partly inside the frustum
+     * @param boxes - the columns, one per hitbox value constant, each holding that value of every box
+     * @param row - the row of the box in the columns
+     * @return - true if the box may be visible
+     */
+    public boolean intersects(float[][] boxes, int row) {
+        return intersects(boxes[Hitbox.X_MIN][row], boxes[Hitbox.X_MAX][row], boxes[Hitbox.Y_MIN][row],
+                boxes[Hitbox.Y_MAX][row], boxes[Hitbox.Z_MIN][row], boxes[Hitbox.Z_MAX][row]);
+    }
+
+    /**
+     * helper method to check if an axis aligned box is at least partly inside the frustum
+     * @param xMin - the lowest x of the box
+     * @param xMax - the highest x of the box
+     * @param yMin - the lowest y of the box
+     * @param yMax - the highest y of the box
+     * @param zMin - the lowest z of the box
+     * @param zMax - the highest z of the box
+     * @return - true if the box may be visible
+     */
+    private boolean intersects(float xMin, float xMax, float yMin, float yMax, float zMin, float zMax) {
+        for (int i = 0; i < NUM_PLANES; i++) {
+            float a = planes[i * 4], b = planes[i * 4 + 1], c = planes[i * 4 + 2], d = planes[i * 4 + 3];
+
+            // the corner of the box furthest along the plane normal
+            float x = a > 0 ? xMax : xMin;
+            float y = b > 0 ? yMax : yMin;
+            float z = c > 0 ? zMax : zMin;
+            if (a * x + b * y + c * z + d < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
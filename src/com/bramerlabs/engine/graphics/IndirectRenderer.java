@@ -0,0 +1,255 @@
+package com.bramerlabs.engine.graphics;
+
+import com.bramerlabs.engine.math.Matrix4f;
+import com.bramerlabs.engine.math.Vector3f;
+import com.bramerlabs.engine.objects.EntityStore;
+import com.bramerlabs.engine.objects.GameObject;
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL13;
+import org.lwjgl.opengl.GL15;
+import org.lwjgl.opengl.GL30;
+import org.lwjgl.opengl.GL40;
+import org.lwjgl.opengl.GL43;
+
+public class IndirectRenderer {
+
+    // the distance at which queued objects are sorted as furthest away, the far plane of the projection
+    private static final float DEPTH_RANGE = 1000f;
+
+    // the number of ints in one DrawElementsIndirectCommand - count, instance count, first index, base vertex, base instance
+    private static final int COMMAND_INTS = 5;
+
+    // the number of draws one frame can hold before the buffers grow
+    private static final int INITIAL_DRAWS = 1024;
+
+    private Shader shader;
+
+    // the draw commands submitted between begin and end
+    private RenderQueue queue = new RenderQueue();
+
+    // the position of the camera the queue is drawn from
+    private Vector3f cameraPosition;
+
+    // the model matrices and draw commands, written straight into mapped memory
+    private RingBuffer transforms = new RingBuffer(Renderer.TRANSFORM_BINDING, Matrix4f.SIZE * Matrix4f.SIZE * Float.BYTES, INITIAL_DRAWS);
+    private RingBuffer commands = new RingBuffer(-1, COMMAND_INTS * Integer.BYTES, INITIAL_DRAWS);
+
+    // reused every draw so rendering does not allocate
+    private int[] command = new int[COMMAND_INTS];
+
+    // the number of draw calls and binds since the last reset
+    private int drawCalls, stateChanges;
+
+    // the number of objects drawn and skipped for being outside the view since the last reset
+    private int objectsDrawn, objectsCulled;
+
+    // the visible volume of the camera
+    private Frustum frustum = new Frustum();
+
+    // the rows of the visible entities of a store, reused between submits
+    private int[] visible = new int[INITIAL_DRAWS];
+
+    /**
+     * default constructor for specified default shader
+     * @param shader - the default shader, which must read its model matrices from the Transforms block
+     */
+    public IndirectRenderer(Shader shader) {
+        this.shader = shader;
+    }
+
+    /**
+     * creates the transform and command buffers
+     */
+    public void create() {
+        transforms.create();
+        commands.create();
+    }
+
+    /**
+     * starts collecting objects for a frame
+     * @param frame - the camera data of the frame, already updated
+     */
+    public void begin(FrameData frame) {
+        frustum.update(frame.getViewProjection());
+        cameraPosition = frame.getCameraPosition();
+    }
+
+    /**
+     * queues an object to be drawn with the default shader
+     * @param object - the object to be drawn
+     */
+    public void submit(GameObject object) {
+        submit(object, shader);
+    }
+
+    /**
+     * queues an object to be drawn with a specified shader - it is skipped if it is outside the view
+     * @param object - the object to be drawn
+     * @param shader - the shader to draw with, which must have the FrameData and Transforms blocks
+     */
+    public void submit(GameObject object, Shader shader) {
+        if (!frustum.intersects(object.getBounds())) {
+            objectsCulled++;
+            return;
+        }
+        objectsDrawn++;
+
+        Vector3f position = object.getRenderPosition();
+        float dx = position.getX() - cameraPosition.getX();
+        float dy = position.getY() - cameraPosition.getY();
+        float dz = position.getZ() - cameraPosition.getZ();
+        queue.add(shader, object, (float) Math.sqrt(dx * dx + dy * dy + dz * dz) / DEPTH_RANGE);
+    }
+
+    /**
+     * queues every object of a store that is inside the view with the default shader, culled with one linear scan of the hitbox column
+     * @param store - the store
+     */
+    public void submit(EntityStore store) {
+        int size = store.size();
+        if (visible.length < size) {
+            visible = new int[Math.max(size, visible.length * 2)];
+        }
+        int count = store.cull(frustum, visible);
+        objectsDrawn += count;
+        objectsCulled += size - count;
+
+        float[] positions = store.getPositions();
+        for (int i = 0; i < count; i++) {
+            int row = visible[i];
+            float dx = positions[row * 3] - cameraPosition.getX();
+            float dy = positions[row * 3 + 1] - cameraPosition.getY();
+            float dz = positions[row * 3 + 2] - cameraPosition.getZ();
+            queue.add(shader, store.getObject(row), (float) Math.sqrt(dx * dx + dy * dy + dz * dz) / DEPTH_RANGE);
+        }
+    }
+
+    /**
+     * writes a draw command for every queued object, then draws each run of objects sharing a shader, vertex array and texture with one call
+     */
+    public void end() {
+        queue.sort();
+        int size = queue.size();
+        int firstTransform = transforms.allocate(size);
+        int firstCommand = commands.allocate(size);
+        transforms.bind();
+
+        // the commands are written in sorted order, so every run of shared state is one contiguous range
+        for (int i = 0; i < size; i++) {
+            GameObject object = queue.getObject(i);
+            Mesh mesh = object.getMesh();
+            transforms.put(firstTransform + i, object.getModelMatrix().getAll());
+            command[0] = mesh.getIndexCount();
+            command[1] = 1;
+            command[2] = mesh.getFirstIndex();
+            command[3] = mesh.getBaseVertex();
+            command[4] = firstTransform + i;
+            commands.put(firstCommand + i, command);
+        }
+
+        GL15.glBindBuffer(GL40.GL_DRAW_INDIRECT_BUFFER, commands.getBuffer());
+        GL13.glActiveTexture(GL13.GL_TEXTURE0);
+        Shader boundShader = null;
+        int boundVAO = -1, boundTexture = -1;
+        int runStart = 0;
+        for (int i = 0; i <= size; i++) {
+            // draw the previous run once the state changes
+            Shader objectShader = i < size ? queue.getShader(i) : null;
+            Mesh mesh = i < size ? queue.getObject(i).getMesh() : null;
+            if (i == size || objectShader != boundShader || mesh.getVAO() != boundVAO || mesh.getMaterial().getTextureID() != boundTexture) {
+                if (i > runStart) {
+                    GL43.glMultiDrawElementsIndirect(GL11.GL_TRIANGLES, GL11.GL_UNSIGNED_INT,
+                            commands.getSectionOffset() + (long) (firstCommand + runStart) * COMMAND_INTS * Integer.BYTES, i - runStart, 0);
+                    drawCalls++;
+                }
+                runStart = i;
+            }
+            if (i == size) {
+                break;
+            }
+
+            if (objectShader != boundShader) {
+                objectShader.bind();
+                boundShader = objectShader;
+                stateChanges++;
+            }
+            if (mesh.getVAO() != boundVAO) {
+                GL30.glBindVertexArray(mesh.getVAO());
+                GL15.glBindBuffer(GL15.GL_ELEMENT_ARRAY_BUFFER, mesh.getIBO());
+                boundVAO = mesh.getVAO();
+                stateChanges++;
+            }
+            if (mesh.getMaterial().getTextureID() != boundTexture) {
+                GL11.glBindTexture(GL11.GL_TEXTURE_2D, mesh.getMaterial().getTextureID());
+                boundTexture = mesh.getMaterial().getTextureID();
+                stateChanges++;
+            }
+        }
+
+        GL15.glBindBuffer(GL40.GL_DRAW_INDIRECT_BUFFER, 0);
+        if (boundShader != null) {
+            GL15.glBindBuffer(GL15.GL_ELEMENT_ARRAY_BUFFER, 0);
+            GL30.glBindVertexArray(0);
+            boundShader.unbind();
+        }
+        queue.clear();
+    }
+
+    /**
+     * hands the matrices and commands written this frame over to the GPU - call at the end of each frame
+     */
+    public void endFrame() {
+        transforms.endFrame();
+        commands.endFrame();
+    }
+
+    /**
+     * resets the draw call and state change counts - call at the start of each frame
+     */
+    public void resetStats() {
+        drawCalls = 0;
+        stateChanges = 0;
+        objectsDrawn = 0;
+        objectsCulled = 0;
+    }
+
+    /**
+     * getter method
+     * @return - the number of draw calls since the last reset
+     */
+    public int getDrawCalls() {
+        return this.drawCalls;
+    }
+
+    /**
+     * getter method
+     * @return - the number of shader, texture and vertex array binds since the last reset
+     */
+    public int getStateChanges() {
+        return this.stateChanges;
+    }
+
+    /**
+     * getter method
+     * @return - the number of objects drawn since the last reset
+     */
+    public int getObjectsDrawn() {
+        return this.objectsDrawn;
+    }
+
+    /**
+     * getter method
+     * @return - the number of objects skipped for being outside the view since the last reset
+     */
+    public int getObjectsCulled() {
+        return this.objectsCulled;
+    }
+
+    /**
+     * releases the transform and command buffers
+     */
+    public void destroy() {
+        transforms.destroy();
+        commands.destroy();
+    }
+}
@@ -2,10 +2,15 @@ package com.bramerlabs.engine.graphics;
 
 import com.bramerlabs.engine.io.file_util.FileUtils;
 import org.lwjgl.opengl.GL20;
+import org.newdawn.slick.opengl.ImageData;
+import org.newdawn.slick.opengl.InternalTextureLoader;
+import org.newdawn.slick.opengl.PNGImageData;
 import org.newdawn.slick.opengl.Texture;
-import org.newdawn.slick.opengl.TextureLoader;
 
+import java.io.BufferedInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.Objects;
 
 import static org.lwjgl.opengl.GL11.GL_NEAREST;
 
@@ -14,9 +19,6 @@ public class Material {
     // the path to the texture
     private String pathToTexture;
 
-    // the format of the texture file
-    private static final String FORMAT = "PNG";
-
     // the dimensions of the texture
     private float width, height;
 
@@ -26,6 +28,15 @@ public class Material {
     // the texture interface
     private Texture texture;
 
+    // the decoded texture, held until it is uploaded
+    private ImageData imageData;
+
+    // the number of meshes using this material
+    private int references;
+
+    // the estimated size of the texture in video memory
+    private long textureBytes;
+
     /**
      * default constructor for specified path to texture
      * @param pathToTexture - the path to the texture
@@ -35,27 +46,61 @@ public class Material {
     }
 
     /**
-     * create the texture
+     * decodes the texture into memory without uploading it - may be called from any thread, and only decodes once
+     */
+    public synchronized void decode() {
+        if (imageData != null || references > 0) {
+            return;
+        }
+        try (InputStream in = FileUtils.class.getModule().getResourceAsStream(pathToTexture)) {
+            PNGImageData data = new PNGImageData();
+            data.loadImage(new BufferedInputStream(in), false, null);
+            imageData = data;
+        } catch (IOException e) {
+            e.printStackTrace();
+            System.err.println("Error: could not load texture.");
+        }
+    }
+
+    /**
+     * create the texture - only the first call uploads it, later calls share the loaded texture
      */
-    public void create() {
+    public synchronized void create() {
+        // the texture has already been loaded by another mesh
+        if (references++ > 0) {
+            MaterialCache.recordHit();
+            return;
+        }
+
+        // decode the texture now unless a loader thread already did
+        decode();
         try {
-            texture = TextureLoader.getTexture(FORMAT, FileUtils.class.getModule().getResourceAsStream(pathToTexture), GL_NEAREST);
+            texture = InternalTextureLoader.get().getTexture(imageData, GL_NEAREST);
         } catch (IOException e) {
             e.printStackTrace();
             System.err.println("Error: could not load texture.");
         }
+        imageData = null;
 
         // get the values
         width = texture.getWidth();
         height = texture.getHeight();
         textureID = texture.getTextureID();
+
+        // textures are padded to powers of two when uploaded
+        textureBytes = (long) texture.getTextureWidth() * texture.getTextureHeight() * (texture.hasAlpha() ? 4 : 3);
+        MaterialCache.recordMiss(textureBytes);
     }
 
     /**
-     * release the texture
+     * release the texture - it is only deleted once the last mesh using it is released
      */
-    public void destroy() {
+    public synchronized void destroy() {
+        if (references == 0 || --references > 0) {
+            return;
+        }
         GL20.glDeleteTextures(textureID);
+        MaterialCache.recordRelease(this, textureBytes);
     }
 
     /**
@@ -81,4 +126,42 @@ public class Material {
     public int getTextureID() {
         return this.textureID;
     }
+
+    /**
+     * getter method
+     * @return - the number of meshes using this material
+     */
+    public int getReferences() {
+        return this.references;
+    }
+
+    /**
+     * getter method
+     * @return - the path to the texture
+     */
+    public String getPathToTexture() {
+        return this.pathToTexture;
+    }
+
+    /**
+     * determines if two materials are made from the same texture
+     * @param o - the other object
+     * @return - true if both objects are materials with the same path to texture
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Material)) return false;
+        Material other = (Material) o;
+        return Objects.equals(this.pathToTexture, other.pathToTexture);
+    }
+
+    /**
+     * generates a hashcode based on the path to the texture
+     * @return - the hashcode
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(pathToTexture);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,86 @@
+package com.bramerlabs.engine.graphics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class MaterialCache {
+
+    // the shared materials, keyed by the path to their texture - levels and cubes may be built on several threads at once
+    private static final Map<String, Material> materials = new ConcurrentHashMap<>();
+
+    // the number of texture loads served by an already decoded texture
+    private static int hits;
+
+    // the number of texture loads that had to decode the texture
+    private static int misses;
+
+    // the estimated amount of video memory used by the loaded textures
+    private static long textureBytes;
+
+    /**
+     * gets the material for a texture, creating it if this is the first time it was asked for
+     * @param pathToTexture - the path to the texture
+     * @return - the material shared by everything using this texture
+     */
+    public static Material get(String pathToTexture) {
+        return materials.computeIfAbsent(pathToTexture, Material::new);
+    }
+
+    /**
+     * records that a material was created by reusing its already decoded texture
+     */
+    static void recordHit() {
+        hits++;
+    }
+
+    /**
+     * records that a material decoded and uploaded its texture
+     * @param bytes - the size of the uploaded texture
+     */
+    static void recordMiss(long bytes) {
+        misses++;
+        textureBytes += bytes;
+    }
+
+    /**
+     * records that the last user of a material released it
+     * @param material - the released material
+     * @param bytes - the size of the released texture
+     */
+    static void recordRelease(Material material, long bytes) {
+        materials.remove(material.getPathToTexture(), material);
+        textureBytes -= bytes;
+    }
+
+    /**
+     * getter method
+     * @return - the number of texture loads that reused a decoded texture
+     */
+    public static int getHits() {
+        return hits;
+    }
+
+    /**
+     * getter method
+     * @return - the number of texture loads that decoded a texture
+     */
+    public static int getMisses() {
+        return misses;
+    }
+
+    /**
+     * getter method
+     * @return - the estimated video memory used by the loaded textures, in bytes
+     */
+    public static long getTextureBytes() {
+        return textureBytes;
+    }
+
+    /**
+     * getter method
+     * @return - the number of materials currently cached
+     */
+    public static int size() {
+        return materials.size();
+    }
+}
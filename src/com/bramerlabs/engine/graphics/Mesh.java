@@ -1,9 +1,11 @@
 package com.bramerlabs.engine.graphics;
 
+import com.bramerlabs.engine.math.Vector3f;
+import com.bramerlabs.engine.objects.Hitbox;
 import org.lwjgl.opengl.*;
 import org.lwjgl.system.MemoryUtil;
 
-import java.nio.FloatBuffer;
+import java.nio.ByteBuffer;
 import java.nio.IntBuffer;
 
 public class Mesh {
@@ -15,17 +17,33 @@ public class Mesh {
     // the material this mesh is made of
     private Material material;
 
+    // the layout of the vertex data
+    private VertexFormat format;
+
     // vertex array object
     private int vao;
 
-    // position buffer object
-    private int pbo;
+    // vertex buffer object, holding the interleaved vertex data
+    private int vbo;
 
     // index buffer object
     private int ibo;
 
-    // texture buffer object
-    private int tbo;
+    // the arena the mesh is stored in, or null if it has its own buffers
+    private MeshArena arena;
+
+    // the position of the first vertex and the first index of this mesh in the buffers of its arena
+    private int baseVertex, firstIndex;
+
+    // the box around the vertices, computed when first needed
+    private Hitbox bounds;
+
+    // the packed vertex and index data, held off heap between preparing and creating the mesh
+    private ByteBuffer vertexData;
+    private IntBuffer indexData;
+
+    // the number of game objects using this mesh
+    private int references;
 
     /**
      * default constructor for specified vertices and indices, and specified material
@@ -34,84 +52,124 @@ public class Mesh {
      * @param material - the material of this mesh
      */
     public Mesh(Vertex[] vertices, int[] indices, Material material) {
+        this(vertices, indices, material, VertexFormat.STANDARD);
+    }
+
+    /**
+     * default constructor for specified vertices and indices, specified material and specified vertex format
+     * @param vertices - the vertices of this mesh
+     * @param indices - the indices of this mesh
+     * @param material - the material of this mesh
+     * @param format - the layout of the vertex data on the GPU
+     */
+    public Mesh(Vertex[] vertices, int[] indices, Material material, VertexFormat format) {
         this.vertices = vertices;
         this.indices = indices;
         this.material = material;
+        this.format = format;
     }
 
     /**
-     * creates the mesh
+     * creates the mesh - prepares it first if that has not been done on another thread
+     * only the first call creates the buffers, later calls share them
      */
-    public void create() {
+    public synchronized void create() {
+        // the mesh has already been created for another game object
+        if (references++ > 0) {
+            return;
+        }
+        if (vertexData == null) {
+            prepare();
+        }
+
+        // a mesh in an arena is only a range of the shared buffers
+        if (arena != null) {
+            arena.add(this, vertexData, indexData);
+            discard();
+            material.create();
+            return;
+        }
+
         // generate and bind the vertex array
         vao = GL46.glGenVertexArrays();
         GL46.glBindVertexArray(vao);
 
         // create the buffers
-        makePositionBuffer();
-        makeTextureBuffer();
+        makeVertexBuffer();
         makeIndexBuffer();
 
         material.create();
     }
 
     /**
-     * helper method to create the position buffer object
+     * stores this mesh in the shared buffers of an arena instead of its own - must be called before the mesh is created
+     * @param arena - the arena, which must use the vertex format of this mesh
      */
-    private void makePositionBuffer() {
-        // preallocate memory
-        FloatBuffer positionBuffer = MemoryUtil.memAllocFloat(vertices.length * 3);
+    public void setArena(MeshArena arena) {
+        this.arena = arena;
+    }
 
-        // create a new temp array to store position data
-        float[] positionData = new float[vertices.length * 3];
+    /**
+     * sets where the mesh lies in the buffers of its arena
+     * @param baseVertex - the position of the first vertex
+     * @param firstIndex - the position of the first index
+     */
+    void setRange(int baseVertex, int firstIndex) {
+        this.baseVertex = baseVertex;
+        this.firstIndex = firstIndex;
+    }
 
-        // add all the position data to the temp array
-        for (int i = 0; i < vertices.length; i++) {
-            positionData[i * 3    ] = vertices[i].getPosition().getX();
-            positionData[i * 3 + 1] = vertices[i].getPosition().getY();
-            positionData[i * 3 + 2] = vertices[i].getPosition().getZ();
-        }
+    /**
+     * does the work of creating the mesh that needs no OpenGL context - packs the vertices and indices and decodes the texture
+     * may be called from any thread, as long as create is called afterwards on the OpenGL thread
+     */
+    public void prepare() {
+        // write the vertices straight into off heap memory
+        vertexData = format.pack(vertices, MemoryUtil.memAlloc(vertices.length * format.getStride()));
 
-        // flip the data to make it handleable by OpenGL
-        positionBuffer.put(positionData).flip();
+        // put the indices into the index buffer flipped
+        indexData = MemoryUtil.memAllocInt(indices.length);
+        indexData.put(indices).flip();
 
-        // store the position data in the position buffer object
-        pbo = storeData(positionBuffer, 0, 3);
+        material.decode();
     }
 
     /**
-     * helper method to create the texture buffer object
+     * releases the memory of a mesh that was prepared but will never be created
      */
-    private void makeTextureBuffer() {
-        // preallocate memory
-        FloatBuffer textureBuffer = MemoryUtil.memAllocFloat(vertices.length * 2);
+    public void discard() {
+        if (vertexData != null) {
+            MemoryUtil.memFree(vertexData);
+            MemoryUtil.memFree(indexData);
+            vertexData = null;
+            indexData = null;
+        }
+    }
 
-        // create a new temp array to store texture coord data
-        float[] textureData = new float[vertices.length * 2];
+    /**
+     * helper method to create the vertex buffer object
+     */
+    private void makeVertexBuffer() {
+        // generate and bind the buffer object
+        vbo = GL15.glGenBuffers();
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, vbo);
 
-        // add all the texture coord data to the temp array
-        for (int i = 0; i < vertices.length; i++) {
-            textureData[i * 2    ] = vertices[i].getTextureCoord().getX();
-            textureData[i * 2 + 1] = vertices[i].getTextureCoord().getY();
-        }
+        // add the vertex data - OpenGL copies it, so the staging memory can be released
+        GL15.glBufferData(GL15.GL_ARRAY_BUFFER, vertexData, GL15.GL_STATIC_DRAW);
+        MemoryUtil.memFree(vertexData);
+        vertexData = null;
 
-        // flip the data to make it handleable by OpenGL
-        textureBuffer.put(textureData).flip();
+        // set the GL attributes - enabling them is stored in the vertex array, so it only has to be done once
+        format.setAttributes();
 
-        // store the texture coord data in the texture buffer object
-        tbo = storeData(textureBuffer, 1, 2);
+        // unbind the buffer
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
     }
 
     /**
      * helper method to create the index buffer object
      */
     private void makeIndexBuffer() {
-        // preallocate memory
-        IntBuffer indicesBuffer = MemoryUtil.memAllocInt(indices.length);
-
-        // put the indices into the index buffer flipped
-        indicesBuffer.put(indices).flip();
-
         // generate a buffer object
         ibo = GL15.glGenBuffers();
 
@@ -119,52 +177,74 @@ public class Mesh {
         GL15.glBindBuffer(GL15.GL_ELEMENT_ARRAY_BUFFER, ibo);
 
         // add the index data
-        GL15.glBufferData(GL15.GL_ELEMENT_ARRAY_BUFFER, indicesBuffer, GL15.GL_STATIC_DRAW);
+        GL15.glBufferData(GL15.GL_ELEMENT_ARRAY_BUFFER, indexData, GL15.GL_STATIC_DRAW);
+        MemoryUtil.memFree(indexData);
+        indexData = null;
 
         // unbind the buffer object
         GL15.glBindBuffer(GL15.GL_ELEMENT_ARRAY_BUFFER, 0);
     }
 
     /**
-     * helper method to store data in a certain buffer object
-     * @param buffer - the float buffer containing the float data
-     * @param index - the index of the data
-     * @param size - the size of the data
-     * @return - the buffer ID
+     * getter method
+     * @return - the vertices of this mesh
      */
-    private int storeData(FloatBuffer buffer, int index, int size) {
-        // generate a buffer ID
-        int bufferID = GL15.glGenBuffers();
-
-        // bind the buffer
-        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, bufferID);
-
-        // add the data from the buffer to the gl buffer object
-        GL15.glBufferData(GL15.GL_ARRAY_BUFFER, buffer, GL15.GL_STATIC_DRAW);
+    public Vertex[] getVertices() {
+        return this.vertices;
+    }
 
-        // set the GL attribute
-        GL20.glVertexAttribPointer(index, size, GL11.GL_FLOAT, false, 0, 0);
+    /**
+     * getter method - the vertices must not change afterwards
+     * @return - the box around the vertices, relative to the object the mesh belongs to
+     */
+    public Hitbox getBounds() {
+        if (bounds == null) {
+            float xMin = Float.POSITIVE_INFINITY, yMin = Float.POSITIVE_INFINITY, zMin = Float.POSITIVE_INFINITY;
+            float xMax = Float.NEGATIVE_INFINITY, yMax = Float.NEGATIVE_INFINITY, zMax = Float.NEGATIVE_INFINITY;
+            for (Vertex vertex : vertices) {
+                Vector3f p = vertex.getPosition();
+                xMin = Math.min(xMin, p.getX());
+                xMax = Math.max(xMax, p.getX());
+                yMin = Math.min(yMin, p.getY());
+                yMax = Math.max(yMax, p.getY());
+                zMin = Math.min(zMin, p.getZ());
+                zMax = Math.max(zMax, p.getZ());
+            }
+            bounds = vertices.length == 0 ? new Hitbox(0, 0, 0, 0, 0, 0) : new Hitbox(xMin, xMax, yMin, yMax, zMin, zMax);
+        }
+        return this.bounds;
+    }
 
-        // unbind the buffer
-        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
+    /**
+     * getter method
+     * @return - the indices of this mesh
+     */
+    public int[] getIndices() {
+        return this.indices;
+    }
 
-        return bufferID;
+    /**
+     * getter method
+     * @return - the number of indices drawn for this mesh
+     */
+    public int getIndexCount() {
+        return this.indices.length;
     }
 
     /**
      * getter method
-     * @return - the vertices of this mesh
+     * @return - the position of the first index of this mesh in its index buffer
      */
-    public Vertex[] getVertices() {
-        return this.vertices;
+    public int getFirstIndex() {
+        return this.firstIndex;
     }
 
     /**
      * getter method
-     * @return - the indices of this mesh
+     * @return - the value added to every index of this mesh, the position of its first vertex in its vertex buffer
      */
-    public int[] getIndices() {
-        return this.indices;
+    public int getBaseVertex() {
+        return this.baseVertex;
     }
 
     /**
@@ -172,15 +252,15 @@ public class Mesh {
      * @return - the vertex array object
      */
     public int getVAO() {
-        return this.vao;
+        return arena != null ? arena.getVAO() : this.vao;
     }
 
     /**
      * getter method
-     * @return - the position buffer object
+     * @return - the vertex buffer object
      */
-    public int getPBO() {
-        return this.pbo;
+    public int getVBO() {
+        return arena != null ? arena.getVBO() : this.vbo;
     }
 
     /**
@@ -188,15 +268,15 @@ public class Mesh {
      * @return - the index buffer object
      */
     public int getIBO() {
-        return this.ibo;
+        return arena != null ? arena.getIBO() : this.ibo;
     }
 
     /**
      * getter method
-     * @return - the texture buffer object
+     * @return - the layout of the vertex data
      */
-    public int getTBO() {
-        return this.tbo;
+    public VertexFormat getFormat() {
+        return this.format;
     }
 
     /**
@@ -208,12 +288,28 @@ public class Mesh {
     }
 
     /**
-     * release the mesh
+     * getter method
+     * @return - the number of game objects using this mesh
      */
-    public void destroy() {
+    public int getReferences() {
+        return this.references;
+    }
+
+    /**
+     * release the mesh - it is only deleted once the last game object using it is released
+     */
+    public synchronized void destroy() {
+        if (references == 0 || --references > 0) {
+            return;
+        }
+        if (arena != null) {
+            arena.remove(this);
+            material.destroy();
+            return;
+        }
+
         // delete the buffers
-        GL15.glDeleteBuffers(pbo);
-        GL15.glDeleteBuffers(tbo);
+        GL15.glDeleteBuffers(vbo);
         GL15.glDeleteBuffers(ibo);
 
         // delete the vertex array
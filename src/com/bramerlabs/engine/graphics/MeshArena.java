@@ -0,0 +1,248 @@
+package com.bramerlabs.engine.graphics;
+
+import org.lwjgl.opengl.GL15;
+import org.lwjgl.opengl.GL30;
+import org.lwjgl.opengl.GL31;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+public class MeshArena {
+
+    // the layout of every vertex in the arena
+    private VertexFormat format;
+
+    // the vertex array shared by every mesh in the arena
+    private int vao;
+
+    // the shared vertex and index buffers
+    private int vbo, ibo;
+
+    // the ranges of the buffers handed out to meshes, in vertices and indices
+    private RangeAllocator vertices, indices;
+
+    // the meshes stored in the arena
+    private List<Mesh> meshes = new ArrayList<>();
+
+    /**
+     * default constructor for specified vertex format and initial sizes
+     * @param format - the layout of every vertex in the arena
+     * @param vertexCapacity - the initial number of vertices the arena can hold
+     * @param indexCapacity - the initial number of indices the arena can hold
+     */
+    public MeshArena(VertexFormat format, int vertexCapacity, int indexCapacity) {
+        this.format = format;
+        this.vertices = new RangeAllocator(vertexCapacity);
+        this.indices = new RangeAllocator(indexCapacity);
+    }
+
+    /**
+     * creates the shared buffers and vertex array
+     */
+    public void create() {
+        vao = GL30.glGenVertexArrays();
+        vbo = makeBuffer((long) vertices.getCapacity() * format.getStride());
+        ibo = makeBuffer((long) indices.getCapacity() * Integer.BYTES);
+        attachBuffers();
+    }
+
+    /**
+     * stores the prepared data of a mesh in the arena, growing the buffers if there is no free range large enough
+     * @param mesh - the mesh, which must use the vertex format of the arena
+     * @param vertexData - the packed vertices
+     * @param indexData - the indices, relative to the first vertex of the mesh
+     */
+    void add(Mesh mesh, ByteBuffer vertexData, IntBuffer indexData) {
+        if (mesh.getFormat() != format) {
+            throw new IllegalArgumentException("The mesh does not use the vertex format of the arena.");
+        }
+        int vertexCount = vertexData.remaining() / format.getStride();
+        int indexCount = indexData.remaining();
+
+        int baseVertex = vertices.allocate(vertexCount);
+        if (baseVertex == -1) {
+            grow(vbo, vertices, vertexCount, format.getStride());
+            baseVertex = vertices.allocate(vertexCount);
+        }
+        int firstIndex = indices.allocate(indexCount);
+        if (firstIndex == -1) {
+            grow(ibo, indices, indexCount, Integer.BYTES);
+            firstIndex = indices.allocate(indexCount);
+        }
+
+        // upload through the copy target so the element buffer of whatever vertex array is bound is left alone
+        GL15.glBindBuffer(GL31.GL_COPY_WRITE_BUFFER, vbo);
+        GL15.glBufferSubData(GL31.GL_COPY_WRITE_BUFFER, (long) baseVertex * format.getStride(), vertexData);
+        GL15.glBindBuffer(GL31.GL_COPY_WRITE_BUFFER, ibo);
+        GL15.glBufferSubData(GL31.GL_COPY_WRITE_BUFFER, (long) firstIndex * Integer.BYTES, indexData);
+        GL15.glBindBuffer(GL31.GL_COPY_WRITE_BUFFER, 0);
+
+        mesh.setRange(baseVertex, firstIndex);
+        meshes.add(mesh);
+    }
+
+    /**
+     * returns the ranges of a mesh to the arena
+     * @param mesh - the mesh
+     */
+    void remove(Mesh mesh) {
+        if (meshes.remove(mesh)) {
+            vertices.free(mesh.getBaseVertex(), mesh.getVertices().length);
+            indices.free(mesh.getFirstIndex(), mesh.getIndexCount());
+        }
+    }
+
+    /**
+     * packs every mesh to the start of the buffers, merging the free space left by removed meshes into one range
+     * the indices are relative to the first vertex of each mesh, so only the offsets of the meshes change
+     */
+    public void defragment() {
+        meshes.sort(Comparator.comparingInt(Mesh::getBaseVertex));
+        int newVbo = makeBuffer((long) vertices.getCapacity() * format.getStride());
+        int newIbo = makeBuffer((long) indices.getCapacity() * Integer.BYTES);
+
+        int vertexEnd = 0, indexEnd = 0;
+        for (Mesh mesh : meshes) {
+            copy(vbo, newVbo, (long) mesh.getBaseVertex() * format.getStride(), (long) vertexEnd * format.getStride(),
+                    (long) mesh.getVertices().length * format.getStride());
+            copy(ibo, newIbo, (long) mesh.getFirstIndex() * Integer.BYTES, (long) indexEnd * Integer.BYTES,
+                    (long) mesh.getIndexCount() * Integer.BYTES);
+            mesh.setRange(vertexEnd, indexEnd);
+            vertexEnd += mesh.getVertices().length;
+            indexEnd += mesh.getIndexCount();
+        }
+        vertices.reset(vertexEnd);
+        indices.reset(indexEnd);
+
+        GL15.glDeleteBuffers(vbo);
+        GL15.glDeleteBuffers(ibo);
+        vbo = newVbo;
+        ibo = newIbo;
+        attachBuffers();
+    }
+
+    /**
+     * helper method to create a buffer
+     * @param bytes - the size of the buffer
+     * @return - the buffer ID
+     */
+    private static int makeBuffer(long bytes) {
+        int buffer = GL15.glGenBuffers();
+        GL15.glBindBuffer(GL31.GL_COPY_WRITE_BUFFER, buffer);
+        GL15.glBufferData(GL31.GL_COPY_WRITE_BUFFER, bytes, GL15.GL_DYNAMIC_DRAW);
+        GL15.glBindBuffer(GL31.GL_COPY_WRITE_BUFFER, 0);
+        return buffer;
+    }
+
+    /**
+     * helper method to copy a range of one buffer into another
+     * @param from - the buffer to read
+     * @param to - the buffer to write
+     * @param fromOffset - the offset of the range in the buffer read, in bytes
+     * @param toOffset - the offset of the range in the buffer written, in bytes
+     * @param bytes - the size of the range
+     */
+    private static void copy(int from, int to, long fromOffset, long toOffset, long bytes) {
+        GL15.glBindBuffer(GL31.GL_COPY_READ_BUFFER, from);
+        GL15.glBindBuffer(GL31.GL_COPY_WRITE_BUFFER, to);
+        GL31.glCopyBufferSubData(GL31.GL_COPY_READ_BUFFER, GL31.GL_COPY_WRITE_BUFFER, fromOffset, toOffset, bytes);
+        GL15.glBindBuffer(GL31.GL_COPY_READ_BUFFER, 0);
+        GL15.glBindBuffer(GL31.GL_COPY_WRITE_BUFFER, 0);
+    }
+
+    /**
+     * helper method to replace a buffer with a larger copy of it
+     * @param buffer - the buffer
+     * @param allocator - the allocator of the buffer
+     * @param needed - the size of the range that did not fit, in units
+     * @param unitBytes - the size of one unit
+     */
+    private void grow(int buffer, RangeAllocator allocator, int needed, int unitBytes) {
+        int oldCapacity = allocator.getCapacity();
+        int capacity = Math.max(oldCapacity * 2, oldCapacity + needed);
+        int newBuffer = makeBuffer((long) capacity * unitBytes);
+        copy(buffer, newBuffer, 0, 0, (long) oldCapacity * unitBytes);
+        GL15.glDeleteBuffers(buffer);
+        allocator.grow(capacity);
+
+        if (buffer == vbo) {
+            vbo = newBuffer;
+        } else {
+            ibo = newBuffer;
+        }
+        attachBuffers();
+    }
+
+    /**
+     * helper method to point the shared vertex array at the current buffers
+     */
+    private void attachBuffers() {
+        GL30.glBindVertexArray(vao);
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, vbo);
+        format.setAttributes();
+        GL15.glBindBuffer(GL15.GL_ELEMENT_ARRAY_BUFFER, ibo);
+        GL30.glBindVertexArray(0);
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
+    }
+
+    /**
+     * getter method
+     * @return - the layout of every vertex in the arena
+     */
+    public VertexFormat getFormat() {
+        return this.format;
+    }
+
+    /**
+     * getter method
+     * @return - the vertex array shared by every mesh in the arena
+     */
+    public int getVAO() {
+        return this.vao;
+    }
+
+    /**
+     * getter method
+     * @return - the shared vertex buffer
+     */
+    public int getVBO() {
+        return this.vbo;
+    }
+
+    /**
+     * getter method
+     * @return - the shared index buffer
+     */
+    public int getIBO() {
+        return this.ibo;
+    }
+
+    /**
+     * getter method
+     * @return - the number of vertices that can still be stored without growing
+     */
+    public int getFreeVertices() {
+        return vertices.getFree();
+    }
+
+    /**
+     * getter method
+     * @return - the number of separate free vertex ranges, more than one after meshes are removed
+     */
+    public int getFreeVertexRanges() {
+        return vertices.getFreeRanges();
+    }
+
+    /**
+     * releases the shared buffers - the meshes in the arena can not be drawn afterwards
+     */
+    public void destroy() {
+        GL15.glDeleteBuffers(vbo);
+        GL15.glDeleteBuffers(ibo);
+        GL30.glDeleteVertexArrays(vao);
+        meshes.clear();
+    }
+}
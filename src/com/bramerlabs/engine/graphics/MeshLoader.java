@@ -0,0 +1,117 @@
+package com.bramerlabs.engine.graphics;
+
+import com.bramerlabs.engine.objects.GameObject;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class MeshLoader {
+
+    // the most prepared objects waiting to be uploaded - workers wait when it is full, bounding the staged memory
+    private static final int QUEUE_CAPACITY = 64;
+
+    // builds and prepares meshes, leaving one core for the OpenGL thread
+    private ForkJoinPool pool = new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+
+    // objects whose meshes are prepared and only need to be created on the OpenGL thread
+    private BlockingQueue<GameObject> ready = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+
+    // the number of submitted tasks that have not finished building
+    private AtomicInteger building = new AtomicInteger();
+
+    // the arena the meshes are stored in, or null if each mesh gets its own buffers
+    private MeshArena arena;
+
+    /**
+     * default constructor - each mesh gets its own buffers
+     */
+    public MeshLoader() {
+        this(null);
+    }
+
+    /**
+     * constructor for specified arena
+     * @param arena - the arena the meshes are stored in, or null if each mesh gets its own buffers
+     */
+    public MeshLoader(MeshArena arena) {
+        this.arena = arena;
+    }
+
+    /**
+     * builds objects on a worker thread and prepares their meshes there
+     * @param task - builds the objects, without touching OpenGL
+     */
+    public void submit(Callable<List<GameObject>> task) {
+        building.incrementAndGet();
+        pool.execute(() -> {
+            try {
+                for (GameObject object : task.call()) {
+                    if (arena != null) {
+                        object.getMesh().setArena(arena);
+                    }
+                    object.getMesh().prepare();
+                    try {
+                        ready.put(object);
+                    } catch (InterruptedException e) {
+                        // the loader is shutting down
+                        object.getMesh().discard();
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            } catch (Exception e) {
+                e.printStackTrace();
+                System.err.println("Error: could not build meshes.");
+            } finally {
+                building.decrementAndGet();
+            }
+        });
+    }
+
+    /**
+     * creates prepared meshes until the time budget runs out - must be called on the OpenGL thread, at least one mesh is created per call
+     * @param budgetNanos - the time the uploads may take
+     * @param result - the list the created objects are added to
+     * @return - the number of objects created
+     */
+    public int upload(long budgetNanos, List<GameObject> result) {
+        long start = System.nanoTime();
+        int created = 0;
+        GameObject object;
+        while ((created == 0 || System.nanoTime() - start < budgetNanos) && (object = ready.poll()) != null) {
+            object.createMesh();
+            result.add(object);
+            created++;
+        }
+        return created;
+    }
+
+    /**
+     * getter method
+     * @return - true if every submitted object has been created
+     */
+    public boolean isIdle() {
+        return building.get() == 0 && ready.isEmpty();
+    }
+
+    /**
+     * stops the workers and releases the meshes that were prepared but never created
+     */
+    public void destroy() {
+        pool.shutdownNow();
+        try {
+            pool.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        GameObject object;
+        while ((object = ready.poll()) != null) {
+            object.getMesh().discard();
+        }
+    }
+}
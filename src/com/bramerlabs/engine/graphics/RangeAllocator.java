@@ -0,0 +1,114 @@
+package com.bramerlabs.engine.graphics;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+class RangeAllocator {
+
+    // the free ranges, from their offset to their size - neighbouring free ranges are always merged
+    private TreeMap<Integer, Integer> free = new TreeMap<>();
+
+    // the size of the whole range
+    private int capacity;
+
+    // the number of units not handed out
+    private int freeUnits;
+
+    /**
+     * default constructor for a specified capacity
+     * @param capacity - the size of the whole range
+     */
+    RangeAllocator(int capacity) {
+        this.capacity = capacity;
+        reset(0);
+    }
+
+    /**
+     * hands out the first free range large enough
+     * @param size - the size of the range
+     * @return - the offset of the range, or -1 if no free range is large enough
+     */
+    int allocate(int size) {
+        for (Map.Entry<Integer, Integer> range : free.entrySet()) {
+            int offset = range.getKey(), rangeSize = range.getValue();
+            if (rangeSize >= size) {
+                // the loop ends here, so changing the map is safe
+                free.remove(offset);
+                if (rangeSize > size) {
+                    free.put(offset + size, rangeSize - size);
+                }
+                freeUnits -= size;
+                return offset;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * returns a range, merging it with the free ranges around it
+     * @param offset - the offset of the range
+     * @param size - the size of the range
+     */
+    void free(int offset, int size) {
+        freeUnits += size;
+
+        Map.Entry<Integer, Integer> before = free.floorEntry(offset);
+        if (before != null && before.getKey() + before.getValue() == offset) {
+            free.remove(before.getKey());
+            offset = before.getKey();
+            size += before.getValue();
+        }
+        Integer after = free.get(offset + size);
+        if (after != null) {
+            free.remove(offset + size);
+            size += after;
+        }
+        free.put(offset, size);
+    }
+
+    /**
+     * extends the whole range
+     * @param capacity - the new size of the whole range, larger than the old size
+     */
+    void grow(int capacity) {
+        int oldCapacity = this.capacity;
+        this.capacity = capacity;
+        free(oldCapacity, capacity - oldCapacity);
+    }
+
+    /**
+     * frees everything after a point, used once the used ranges have been packed to the start
+     * @param used - the size of the packed used ranges
+     */
+    void reset(int used) {
+        free.clear();
+        if (used < capacity) {
+            free.put(used, capacity - used);
+        }
+        freeUnits = capacity - used;
+    }
+
+    /**
+     * getter method
+     * @return - the size of the whole range
+     */
+    int getCapacity() {
+        return this.capacity;
+    }
+
+    /**
+     * getter method
+     * @return - the number of units not handed out
+     */
+    int getFree() {
+        return this.freeUnits;
+    }
+
+    /**
+     * getter method
+     * @return - the number of separate free ranges, a measure of fragmentation
+     */
+    int getFreeRanges() {
+        return free.size();
+    }
+}
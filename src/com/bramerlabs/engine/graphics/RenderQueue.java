@@ -0,0 +1,116 @@
+package com.bramerlabs.engine.graphics;
+
+import com.bramerlabs.engine.objects.GameObject;
+
+import java.util.Arrays;
+
+public class RenderQueue {
+
+    // the layout of a sort key, from the most to the least significant bits
+    private static final int SHADER_BITS = 6;
+    private static final int MATERIAL_BITS = 10;
+    private static final int MESH_BITS = 10;
+    private static final int DEPTH_BITS = 14;
+    private static final int INDEX_BITS = 24;
+
+    private static final int INDEX_SHIFT = 0;
+    private static final int DEPTH_SHIFT = INDEX_SHIFT + INDEX_BITS;
+    private static final int MESH_SHIFT = DEPTH_SHIFT + DEPTH_BITS;
+    private static final int MATERIAL_SHIFT = MESH_SHIFT + MESH_BITS;
+    private static final int SHADER_SHIFT = MATERIAL_SHIFT + MATERIAL_BITS;
+
+    // the most commands the queue can hold, limited by the index bits of a key
+    public static final int MAX_COMMANDS = 1 << INDEX_BITS;
+
+    // the sort keys, each ending in the index of its command
+    private long[] keys = new long[256];
+
+    // the commands, stored in the order they were added
+    private GameObject[] objects = new GameObject[256];
+    private Shader[] shaders = new Shader[256];
+
+    // the number of commands in the queue
+    private int size;
+
+    /**
+     * adds a draw command to the queue
+     * @param shader - the shader to draw with
+     * @param object - the object to draw
+     * @param depth - the distance to the camera, from 0 at the camera to 1 at the far plane
+     */
+    public void add(Shader shader, GameObject object, float depth) {
+        if (size == MAX_COMMANDS) {
+            throw new IllegalStateException("Render queue is full.");
+        }
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            objects = Arrays.copyOf(objects, size * 2);
+            shaders = Arrays.copyOf(shaders, size * 2);
+        }
+
+        Mesh mesh = object.getMesh();
+        keys[size] = makeKey(shader.getProgramID(), mesh.getMaterial().getTextureID(), mesh.getVAO(), depth) | size;
+        objects[size] = object;
+        shaders[size] = shader;
+        size++;
+    }
+
+    /**
+     * creates the sort key of a command - commands are grouped by shader, then material, then mesh, then drawn front to back
+     * ids larger than their bits only make the grouping less effective, never incorrect
+     * @param shader - the id of the shader
+     * @param material - the id of the material
+     * @param mesh - the id of the mesh
+     * @param depth - the distance to the camera, from 0 to 1
+     * @return - the key, with the index bits left empty
+     */
+    public static long makeKey(int shader, int material, int mesh, float depth) {
+        long quantizedDepth = (long) (Math.max(0, Math.min(1, depth)) * ((1 << DEPTH_BITS) - 1));
+        return ((long) (shader & ((1 << SHADER_BITS) - 1)) << SHADER_SHIFT)
+                | ((long) (material & ((1 << MATERIAL_BITS) - 1)) << MATERIAL_SHIFT)
+                | ((long) (mesh & ((1 << MESH_BITS) - 1)) << MESH_SHIFT)
+                | (quantizedDepth << DEPTH_SHIFT);
+    }
+
+    /**
+     * sorts the commands by their keys
+     */
+    public void sort() {
+        Arrays.sort(keys, 0, size);
+    }
+
+    /**
+     * getter method
+     * @param i - the position of the command in sorted order
+     * @return - the object of the command
+     */
+    public GameObject getObject(int i) {
+        return objects[(int) (keys[i] & (MAX_COMMANDS - 1))];
+    }
+
+    /**
+     * getter method
+     * @param i - the position of the command in sorted order
+     * @return - the shader of the command
+     */
+    public Shader getShader(int i) {
+        return shaders[(int) (keys[i] & (MAX_COMMANDS - 1))];
+    }
+
+    /**
+     * getter method
+     * @return - the number of commands in the queue
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * removes every command from the queue
+     */
+    public void clear() {
+        Arrays.fill(objects, 0, size, null);
+        Arrays.fill(shaders, 0, size, null);
+        size = 0;
+    }
+}
@@ -1,41 +1,199 @@
 package com.bramerlabs.engine.graphics;
 
-import com.bramerlabs.engine.io.window.Window;
 import com.bramerlabs.engine.math.Matrix4f;
-import com.bramerlabs.engine.objects.Camera;
+import com.bramerlabs.engine.math.Vector3f;
 import com.bramerlabs.engine.objects.GameObject;
 import org.lwjgl.opengl.GL11;
 import org.lwjgl.opengl.GL13;
 import org.lwjgl.opengl.GL15;
 import org.lwjgl.opengl.GL30;
+import org.lwjgl.opengl.GL42;
 
 public class Renderer {
+
+    // the distance at which queued objects are sorted as furthest away, the far plane of the projection
+    private static final float DEPTH_RANGE = 1000f;
+
+    // the shader storage binding point of the model matrices, matching the Transforms block of the shaders
+    public static final int TRANSFORM_BINDING = 0;
+
+    // the number of model matrices one frame can hold before the transform buffer grows
+    private static final int INITIAL_TRANSFORMS = 1024;
+
     private Shader shader;
-    private Window window;
 
-    public Renderer(Window window, Shader shader) {
+    // the draw commands submitted between begin and end
+    private RenderQueue queue = new RenderQueue();
+
+    // the position of the camera the queue is drawn from
+    private Vector3f cameraPosition;
+
+    // the model matrices, written straight into mapped memory and read by the shaders with the base instance of each draw
+    private RingBuffer transforms = new RingBuffer(TRANSFORM_BINDING, Matrix4f.SIZE * Matrix4f.SIZE * Float.BYTES, INITIAL_TRANSFORMS);
+
+    // the number of draw calls and binds since the last reset
+    private int drawCalls, stateChanges;
+
+    // the number of objects drawn and skipped for being outside the view since the last reset
+    private int objectsDrawn, objectsCulled;
+
+    // the visible volume of the camera
+    private Frustum frustum = new Frustum();
+
+    public Renderer(Shader shader) {
         this.shader = shader;
-        this.window = window;
+        transforms.create();
     }
 
-    public void renderMesh(GameObject object, Camera camera) {
-        GL30.glBindVertexArray(object.getMesh().getVAO());
-        GL30.glEnableVertexAttribArray(0);
-        GL30.glEnableVertexAttribArray(1);
-        GL30.glEnableVertexAttribArray(2);
-        GL15.glBindBuffer(GL15.GL_ELEMENT_ARRAY_BUFFER, object.getMesh().getIBO());
+    /**
+     * starts collecting draw commands for a frame
+     * @param frame - the camera data of the frame, already updated
+     */
+    public void begin(FrameData frame) {
+        frustum.update(frame.getViewProjection());
+        cameraPosition = frame.getCameraPosition();
+    }
+
+    /**
+     * queues an object to be drawn with the default shader
+     * @param object - the object to be drawn
+     */
+    public void submit(GameObject object) {
+        submit(object, shader);
+    }
+
+    /**
+     * queues an object to be drawn with a specified shader - it is skipped if it is outside the view
+     * @param object - the object to be drawn
+     * @param shader - the shader to draw with, which must have the FrameData and Transforms blocks
+     */
+    public void submit(GameObject object, Shader shader) {
+        if (!frustum.intersects(object.getBounds())) {
+            objectsCulled++;
+            return;
+        }
+        objectsDrawn++;
+
+        Vector3f position = object.getRenderPosition();
+        float dx = position.getX() - cameraPosition.getX();
+        float dy = position.getY() - cameraPosition.getY();
+        float dz = position.getZ() - cameraPosition.getZ();
+        queue.add(shader, object, (float) Math.sqrt(dx * dx + dy * dy + dz * dz) / DEPTH_RANGE);
+    }
+
+    /**
+     * draws the queued objects sorted by state, only binding a shader, mesh or texture when it changes -
+     * objects sharing a mesh, like cubes, are drawn with one instanced call
+     */
+    public void end() {
+        queue.sort();
+
+        // the model matrices of the queued objects are stored in draw order
+        int firstTransform = transforms.allocate(queue.size());
+        transforms.bind();
+
+        Shader boundShader = null;
+        int boundVAO = -1, boundTexture = -1;
         GL13.glActiveTexture(GL13.GL_TEXTURE0);
-        GL13.glBindTexture(GL11.GL_TEXTURE_2D, object.getMesh().getMaterial().getTextureID());
-        shader.bind();
-        shader.setUniform("model", Matrix4f.transform(object.getPosition(), object.getRotation(), object.getScale()));
-        shader.setUniform("view", Matrix4f.view(camera.getPosition(), camera.getRotation()));
-        shader.setUniform("projection", window.getProjectionMatrix());
-        GL11.glDrawElements(GL11.GL_TRIANGLES, object.getMesh().getIndices().length, GL11.GL_UNSIGNED_INT, 0);
-        shader.unbind();
-        GL15.glBindBuffer(GL15.GL_ELEMENT_ARRAY_BUFFER, 0);
-        GL30.glDisableVertexAttribArray(0);
-        GL30.glDisableVertexAttribArray(1);
-        GL30.glDisableVertexAttribArray(2);
-        GL30.glBindVertexArray(0);
+
+        for (int i = 0; i < queue.size(); ) {
+            GameObject object = queue.getObject(i);
+            Shader objectShader = queue.getShader(i);
+            Mesh mesh = object.getMesh();
+
+            if (objectShader != boundShader) {
+                objectShader.bind();
+                boundShader = objectShader;
+                stateChanges++;
+            }
+            if (mesh.getVAO() != boundVAO) {
+                GL30.glBindVertexArray(mesh.getVAO());
+                GL15.glBindBuffer(GL15.GL_ELEMENT_ARRAY_BUFFER, mesh.getIBO());
+                boundVAO = mesh.getVAO();
+                stateChanges++;
+            }
+            if (mesh.getMaterial().getTextureID() != boundTexture) {
+                GL11.glBindTexture(GL11.GL_TEXTURE_2D, mesh.getMaterial().getTextureID());
+                boundTexture = mesh.getMaterial().getTextureID();
+                stateChanges++;
+            }
+
+            // the following objects with the same shader and mesh are drawn as instances of one draw,
+            // each reading the model matrix after the one before
+            int instances = 1;
+            transforms.put(firstTransform + i, object.getModelMatrix().getAll());
+            while (i + instances < queue.size() && queue.getShader(i + instances) == objectShader
+                    && queue.getObject(i + instances).getMesh() == mesh) {
+                transforms.put(firstTransform + i + instances, queue.getObject(i + instances).getModelMatrix().getAll());
+                instances++;
+            }
+            GL42.glDrawElementsInstancedBaseVertexBaseInstance(GL11.GL_TRIANGLES, mesh.getIndexCount(), GL11.GL_UNSIGNED_INT,
+                    (long) mesh.getFirstIndex() * Integer.BYTES, instances, mesh.getBaseVertex(), firstTransform + i);
+            drawCalls++;
+            i += instances;
+        }
+
+        if (boundShader != null) {
+            GL15.glBindBuffer(GL15.GL_ELEMENT_ARRAY_BUFFER, 0);
+            GL30.glBindVertexArray(0);
+            boundShader.unbind();
+        }
+        queue.clear();
+    }
+
+    /**
+     * hands the model matrices written this frame over to the GPU - call at the end of each frame
+     */
+    public void endFrame() {
+        transforms.endFrame();
+    }
+
+    /**
+     * releases the transform buffer
+     */
+    public void destroy() {
+        transforms.destroy();
+    }
+
+    /**
+     * resets the draw call and state change counts - call at the start of each frame
+     */
+    public void resetStats() {
+        drawCalls = 0;
+        stateChanges = 0;
+        objectsDrawn = 0;
+        objectsCulled = 0;
+    }
+
+    /**
+     * getter method
+     * @return - the number of draw calls since the last reset
+     */
+    public int getDrawCalls() {
+        return this.drawCalls;
+    }
+
+    /**
+     * getter method
+     * @return - the number of shader, texture and vertex array binds since the last reset
+     */
+    public int getStateChanges() {
+        return this.stateChanges;
+    }
+
+    /**
+     * getter method
+     * @return - the number of objects drawn since the last reset
+     */
+    public int getObjectsDrawn() {
+        return this.objectsDrawn;
+    }
+
+    /**
+     * getter method
+     * @return - the number of objects skipped for being outside the view since the last reset
+     */
+    public int getObjectsCulled() {
+        return this.objectsCulled;
     }
 }
\ No newline at end of file
@@ -0,0 +1,213 @@
+package com.bramerlabs.engine.graphics;
+
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL15;
+import org.lwjgl.opengl.GL30;
+import org.lwjgl.opengl.GL32;
+import org.lwjgl.opengl.GL43;
+import org.lwjgl.opengl.GL44;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+
+public class RingBuffer {
+
+    // the number of sections - the CPU writes one while the GPU may still be reading the other two
+    private static final int SECTIONS = 3;
+
+    // how long to wait for the GPU to finish with a section before checking again
+    private static final long WAIT_TIMEOUT = 1_000_000_000L;
+
+    // the flags of the buffer storage and mapping - the memory stays mapped and writes are seen by the GPU without flushing
+    private static final int FLAGS = GL30.GL_MAP_WRITE_BIT | GL44.GL_MAP_PERSISTENT_BIT | GL44.GL_MAP_COHERENT_BIT;
+
+    // the shader storage binding point the current section is bound to, or -1 if it is used some other way
+    private int binding;
+
+    // the size of one element, in bytes
+    private int elementBytes;
+
+    // the number of elements in one section
+    private int capacity;
+
+    // the size of one section, in bytes, padded to the offset alignment of shader storage buffers
+    private long sectionBytes;
+
+    // the buffer object and its mapped memory
+    private int buffer;
+    private ByteBuffer mapped;
+    private FloatBuffer floats;
+    private IntBuffer ints;
+
+    // the fence placed after the last use of each section, or 0 if the section is free
+    private long[] fences = new long[SECTIONS];
+
+    // the section being written and the number of elements used in it
+    private int section;
+    private int used;
+
+    /**
+     * default constructor for specified binding point and element size
+     * @param binding - the shader storage binding point, matching the binding of the buffer block in the shaders, or -1 for none
+     * @param elementBytes - the size of one element, in bytes, a multiple of 4
+     * @param capacity - the initial number of elements in one section, grown when a frame needs more
+     */
+    public RingBuffer(int binding, int elementBytes, int capacity) {
+        this.binding = binding;
+        this.elementBytes = elementBytes;
+        this.capacity = capacity;
+    }
+
+    /**
+     * creates and maps the buffer
+     */
+    public void create() {
+        int alignment = GL11.glGetInteger(GL43.GL_SHADER_STORAGE_BUFFER_OFFSET_ALIGNMENT);
+        sectionBytes = ((long) capacity * elementBytes + alignment - 1) / alignment * alignment;
+
+        buffer = GL15.glGenBuffers();
+        GL15.glBindBuffer(GL43.GL_SHADER_STORAGE_BUFFER, buffer);
+        GL44.glBufferStorage(GL43.GL_SHADER_STORAGE_BUFFER, sectionBytes * SECTIONS, FLAGS);
+        mapped = GL30.glMapBufferRange(GL43.GL_SHADER_STORAGE_BUFFER, 0, sectionBytes * SECTIONS, FLAGS);
+        floats = mapped.asFloatBuffer();
+        ints = mapped.asIntBuffer();
+        GL15.glBindBuffer(GL43.GL_SHADER_STORAGE_BUFFER, 0);
+
+        section = 0;
+        used = 0;
+        bind();
+    }
+
+    /**
+     * reserves elements in the current section, moving on to the next section if they do not fit
+     * @param count - the number of elements
+     * @return - the index of the first element within the bound section, to be used as the base instance of a draw
+     */
+    public int allocate(int count) {
+        if (count > capacity) {
+            grow(count);
+        } else if (used + count > capacity) {
+            advance();
+        }
+        int first = used;
+        used += count;
+        return first;
+    }
+
+    /**
+     * writes floats into an allocated element
+     * @param index - the index of the element within the bound section
+     * @param values - the values, at most one element long
+     */
+    public void put(int index, float[] values) {
+        floats.position((int) ((section * sectionBytes + (long) index * elementBytes) / Float.BYTES));
+        floats.put(values);
+    }
+
+    /**
+     * writes ints into an allocated element
+     * @param index - the index of the element within the bound section
+     * @param values - the values, at most one element long
+     */
+    public void put(int index, int[] values) {
+        ints.position((int) ((section * sectionBytes + (long) index * elementBytes) / Integer.BYTES));
+        ints.put(values);
+    }
+
+    /**
+     * marks the end of a frame - the GPU is fenced off the written section and the next section is bound
+     */
+    public void endFrame() {
+        if (used > 0) {
+            advance();
+        }
+    }
+
+    /**
+     * helper method to fence the current section and move on to the next one, waiting until the GPU is done with it
+     */
+    private void advance() {
+        fences[section] = GL32.glFenceSync(GL32.GL_SYNC_GPU_COMMANDS_COMPLETE, 0);
+        section = (section + 1) % SECTIONS;
+        waitFor(section);
+        used = 0;
+        bind();
+    }
+
+    /**
+     * helper method to wait until the GPU has finished reading a section
+     * @param section - the section
+     */
+    private void waitFor(int section) {
+        long fence = fences[section];
+        if (fence == 0) {
+            return;
+        }
+        int status;
+        do {
+            status = GL32.glClientWaitSync(fence, GL32.GL_SYNC_FLUSH_COMMANDS_BIT, WAIT_TIMEOUT);
+        } while (status == GL32.GL_TIMEOUT_EXPIRED);
+        GL32.glDeleteSync(fence);
+        fences[section] = 0;
+    }
+
+    /**
+     * helper method to recreate the buffer with room for more elements per section
+     * @param count - the number of elements one section must hold
+     */
+    private void grow(int count) {
+        destroy();
+        capacity = Math.max(count, capacity * 2);
+        create();
+    }
+
+    /**
+     * binds the current section to the binding point - needed when another buffer may have been bound there since
+     */
+    public void bind() {
+        if (binding >= 0) {
+            GL30.glBindBufferRange(GL43.GL_SHADER_STORAGE_BUFFER, binding, buffer, section * sectionBytes, sectionBytes);
+        }
+    }
+
+    /**
+     * getter method
+     * @return - the buffer object
+     */
+    public int getBuffer() {
+        return this.buffer;
+    }
+
+    /**
+     * getter method
+     * @return - the offset of the current section in the buffer, in bytes
+     */
+    public long getSectionOffset() {
+        return section * sectionBytes;
+    }
+
+    /**
+     * getter method
+     * @return - the number of elements in one section
+     */
+    public int getCapacity() {
+        return this.capacity;
+    }
+
+    /**
+     * releases the buffer, after waiting for the GPU to finish reading it
+     */
+    public void destroy() {
+        for (int i = 0; i < SECTIONS; i++) {
+            waitFor(i);
+        }
+        GL15.glBindBuffer(GL43.GL_SHADER_STORAGE_BUFFER, buffer);
+        GL15.glUnmapBuffer(GL43.GL_SHADER_STORAGE_BUFFER);
+        GL15.glBindBuffer(GL43.GL_SHADER_STORAGE_BUFFER, 0);
+        GL15.glDeleteBuffers(buffer);
+        mapped = null;
+        floats = null;
+        ints = null;
+    }
+}
@@ -6,9 +6,13 @@ import com.bramerlabs.engine.math.Vector2f;
 import com.bramerlabs.engine.math.Vector3f;
 import org.lwjgl.opengl.GL11;
 import org.lwjgl.opengl.GL20;
+import org.lwjgl.system.MemoryStack;
 import org.lwjgl.system.MemoryUtil;
 
 import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.util.HashMap;
+import java.util.Map;
 
 public class Shader {
 
@@ -21,6 +25,13 @@ public class Shader {
     // pointers to shader program
     private int vertexID, fragmentID, programID;
 
+    // the locations of the active uniforms and attributes, resolved once after linking
+    private Map<String, Integer> uniformLocations = new HashMap<>();
+    private Map<String, Integer> attributeLocations = new HashMap<>();
+
+    // reusable off-heap memory for uploading matrices, allocated on the first upload
+    private FloatBuffer matrixBuffer;
+
     /**
      * default constructor for the shader from specified path to vertex and fragment shaders
      * @param pathToVertexShader - the path to the vertex shader
@@ -48,6 +59,9 @@ public class Shader {
         // link the program
         linkProgram(programID);
         validateProgram(programID);
+
+        // look up every uniform and attribute location once
+        resolveLocations();
     }
 
     private void createFragmentShader() {
@@ -121,13 +135,53 @@ public class Shader {
         }
     }
 
+    /**
+     * helper method to store the locations of all active uniforms and attributes of the linked program
+     */
+    private void resolveLocations() {
+        try (MemoryStack stack = MemoryStack.stackPush()) {
+            IntBuffer size = stack.mallocInt(1);
+            IntBuffer type = stack.mallocInt(1);
+
+            int numUniforms = GL20.glGetProgrami(programID, GL20.GL_ACTIVE_UNIFORMS);
+            for (int i = 0; i < numUniforms; i++) {
+                String name = stripArraySuffix(GL20.glGetActiveUniform(programID, i, size, type));
+                uniformLocations.put(name, GL20.glGetUniformLocation(programID, name));
+            }
+
+            int numAttributes = GL20.glGetProgrami(programID, GL20.GL_ACTIVE_ATTRIBUTES);
+            for (int i = 0; i < numAttributes; i++) {
+                String name = stripArraySuffix(GL20.glGetActiveAttrib(programID, i, size, type));
+                attributeLocations.put(name, GL20.glGetAttribLocation(programID, name));
+            }
+        }
+    }
+
+    /**
+     * helper method to turn an active array name like "lights[0]" into the name used to look it up
+     * @param name - the active name reported by OpenGL
+     * @return - the name without the array suffix
+     */
+    private static String stripArraySuffix(String name) {
+        return name.endsWith("[0]") ? name.substring(0, name.length() - 3) : name;
+    }
+
     /**
      * getter method
      * @param uniformName - the name of the uniform
-     * @return - the location of the uniform
+     * @return - the location of the uniform, or -1 if the program has no such active uniform
      */
     public int getUniformLocation(String uniformName) {
-        return GL20.glGetUniformLocation(programID, uniformName);
+        return uniformLocations.getOrDefault(uniformName, -1);
+    }
+
+    /**
+     * getter method
+     * @param attributeName - the name of the attribute
+     * @return - the location of the attribute, or -1 if the program has no such active attribute
+     */
+    public int getAttributeLocation(String attributeName) {
+        return attributeLocations.getOrDefault(attributeName, -1);
     }
 
     /**
@@ -136,7 +190,7 @@ public class Shader {
      * @param value - the value of the uniform
      */
     public void setUniform(String name, float value) {
-        GL20.glUniform1f(getUniformLocation(name), value);
+        setUniform(getUniformLocation(name), value);
     }
 
     /**
@@ -145,7 +199,7 @@ public class Shader {
      * @param value - the value
      */
     public void setUniform(String name, int value) {
-        GL20.glUniform1i(getUniformLocation(name), value);
+        setUniform(getUniformLocation(name), value);
     }
 
     /**
@@ -154,7 +208,7 @@ public class Shader {
      * @param value - the value of the uniform
      */
     public void setUniform(String name, boolean value) {
-        GL20.glUniform1i(getUniformLocation(name), value ? 1 : 0);
+        setUniform(getUniformLocation(name), value);
     }
 
     /**
@@ -163,7 +217,7 @@ public class Shader {
      * @param value - the value of the uniform
      */
     public void setUniform(String name, Vector2f value) {
-        GL20.glUniform2f(getUniformLocation(name), value.getX(), value.getY());
+        setUniform(getUniformLocation(name), value);
     }
 
     /**
@@ -172,7 +226,7 @@ public class Shader {
      * @param value - the value of the uniform
      */
     public void setUniform(String name, Vector3f value) {
-        GL20.glUniform3f(getUniformLocation(name), value.getX(), value.getY(), value.getZ());
+        setUniform(getUniformLocation(name), value);
     }
 
     /**
@@ -181,14 +235,77 @@ public class Shader {
      * @param value - the value of the uniform
      */
     public void setUniform(String name, Matrix4f value) {
-        // preallocate memory for the float values
-        FloatBuffer matrix = MemoryUtil.memAllocFloat(Matrix4f.SIZE * Matrix4f.SIZE);
+        setUniform(getUniformLocation(name), value);
+    }
+
+    /**
+     * sets the uniform to a float value
+     * @param location - the location of the uniform, from getUniformLocation
+     * @param value - the value of the uniform
+     */
+    public void setUniform(int location, float value) {
+        GL20.glUniform1f(location, value);
+    }
+
+    /**
+     * sets the uniform to an int value
+     * @param location - the location of the uniform, from getUniformLocation
+     * @param value - the value of the uniform
+     */
+    public void setUniform(int location, int value) {
+        GL20.glUniform1i(location, value);
+    }
+
+    /**
+     * sets the uniform to a boolean value (converts boolean to 1 or 0)
+     * @param location - the location of the uniform, from getUniformLocation
+     * @param value - the value of the uniform
+     */
+    public void setUniform(int location, boolean value) {
+        GL20.glUniform1i(location, value ? 1 : 0);
+    }
+
+    /**
+     * sets the uniform to a vec2 value
+     * @param location - the location of the uniform, from getUniformLocation
+     * @param value - the value of the uniform
+     */
+    public void setUniform(int location, Vector2f value) {
+        GL20.glUniform2f(location, value.getX(), value.getY());
+    }
 
-        // put the values flipped of the matrix into the float buffer
-        matrix.put(value.getAll()).flip();
+    /**
+     * sets the uniform to a vec3 value
+     * @param location - the location of the uniform, from getUniformLocation
+     * @param value - the value of the uniform
+     */
+    public void setUniform(int location, Vector3f value) {
+        GL20.glUniform3f(location, value.getX(), value.getY(), value.getZ());
+    }
 
+    /**
+     * sets the uniform to a mat4 value
+     * @param location - the location of the uniform, from getUniformLocation
+     * @param value - the value of the uniform
+     */
+    public void setUniform(int location, Matrix4f value) {
         // transpose is true because we create it in row major order instead of column major order
-        GL20.glUniformMatrix4fv(getUniformLocation(name), true, matrix);
+        GL20.glUniformMatrix4fv(location, true, stage(value));
+    }
+
+    /**
+     * writes the float values of a matrix into the off-heap memory uploads are made from - needs no OpenGL context
+     * the memory is allocated once and reused by every later upload, until the shader is destroyed
+     * @param value - the matrix
+     * @return - the memory holding the matrix, in row major order, valid until the next upload
+     */
+    public FloatBuffer stage(Matrix4f value) {
+        if (matrixBuffer == null) {
+            matrixBuffer = MemoryUtil.memAllocFloat(Matrix4f.SIZE * Matrix4f.SIZE);
+        }
+        matrixBuffer.clear();
+        matrixBuffer.put(value.getAll()).flip();
+        return matrixBuffer;
     }
 
     /**
@@ -215,6 +332,18 @@ public class Shader {
 
         // delete the shader program
         GL20.glDeleteShader(programID);
+
+        // release the matrix memory
+        MemoryUtil.memFree(matrixBuffer);
+        matrixBuffer = null;
+    }
+
+    /**
+     * getter method
+     * @return - the id of the shader program
+     */
+    public int getProgramID() {
+        return this.programID;
     }
 
     /**
@@ -0,0 +1,146 @@
+package com.bramerlabs.engine.graphics;
+
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL20;
+import org.lwjgl.opengl.GL30;
+
+import java.nio.ByteBuffer;
+
+public class VertexFormat {
+
+    // 32 bit float positions and texture coordinates - 20 bytes per vertex
+    public static final VertexFormat STANDARD = new VertexFormat(false, false);
+
+    // normalized 16 bit positions, which must lie within [-1, 1], and half float texture coordinates - 12 bytes per vertex
+    public static final VertexFormat COMPACT = new VertexFormat(true, true);
+
+    // the attribute indices of the vertex data
+    public static final int POSITION_ATTRIB = 0;
+    public static final int TEXTURE_COORD_ATTRIB = 1;
+
+    // if positions are stored as normalized shorts instead of floats
+    private boolean packedPositions;
+
+    // if texture coordinates are stored as half floats instead of floats
+    private boolean halfTextureCoords;
+
+    // the byte offset of the texture coordinates, and the size of one vertex
+    private int textureCoordOffset, stride;
+
+    /**
+     * default constructor for specified attribute types
+     * @param packedPositions - true to store positions as normalized shorts
+     * @param halfTextureCoords - true to store texture coordinates as half floats
+     */
+    public VertexFormat(boolean packedPositions, boolean halfTextureCoords) {
+        this.packedPositions = packedPositions;
+        this.halfTextureCoords = halfTextureCoords;
+
+        // packed positions are padded to 4 shorts to keep every attribute 4 byte aligned
+        this.textureCoordOffset = packedPositions ? 4 * Short.BYTES : 3 * Float.BYTES;
+        this.stride = textureCoordOffset + (halfTextureCoords ? 2 * Short.BYTES : 2 * Float.BYTES);
+    }
+
+    /**
+     * writes vertices into a buffer in this format
+     * @param vertices - the vertices
+     * @param buffer - the buffer to write into, with room for getStride() bytes per vertex
+     * @return - the buffer, flipped to make it handleable by OpenGL
+     */
+    public ByteBuffer pack(Vertex[] vertices, ByteBuffer buffer) {
+        for (Vertex vertex : vertices) {
+            if (packedPositions) {
+                buffer.putShort(toNormalizedShort(vertex.getPosition().getX()));
+                buffer.putShort(toNormalizedShort(vertex.getPosition().getY()));
+                buffer.putShort(toNormalizedShort(vertex.getPosition().getZ()));
+                buffer.putShort((short) 0);
+            } else {
+                buffer.putFloat(vertex.getPosition().getX());
+                buffer.putFloat(vertex.getPosition().getY());
+                buffer.putFloat(vertex.getPosition().getZ());
+            }
+            if (halfTextureCoords) {
+                buffer.putShort(toHalfFloat(vertex.getTextureCoord().getX()));
+                buffer.putShort(toHalfFloat(vertex.getTextureCoord().getY()));
+            } else {
+                buffer.putFloat(vertex.getTextureCoord().getX());
+                buffer.putFloat(vertex.getTextureCoord().getY());
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * describes this format to the bound vertex array, reading from the bound array buffer
+     */
+    public void setAttributes() {
+        if (packedPositions) {
+            GL20.glVertexAttribPointer(POSITION_ATTRIB, 3, GL11.GL_SHORT, true, stride, 0);
+        } else {
+            GL20.glVertexAttribPointer(POSITION_ATTRIB, 3, GL11.GL_FLOAT, false, stride, 0);
+        }
+        GL20.glVertexAttribPointer(TEXTURE_COORD_ATTRIB, 2, halfTextureCoords ? GL30.GL_HALF_FLOAT : GL11.GL_FLOAT, false, stride, textureCoordOffset);
+        GL20.glEnableVertexAttribArray(POSITION_ATTRIB);
+        GL20.glEnableVertexAttribArray(TEXTURE_COORD_ATTRIB);
+    }
+
+    /**
+     * helper method to convert a value in [-1, 1] to a normalized short
+     * @param value - the value
+     * @return - the normalized short
+     */
+    private static short toNormalizedShort(float value) {
+        if (value < -1 || value > 1) {
+            throw new IllegalArgumentException("Packed positions must lie within [-1, 1], got " + value);
+        }
+        return (short) Math.round(value * Short.MAX_VALUE);
+    }
+
+    /**
+     * converts a float to a half float, rounding to the nearest value
+     * @param value - the float
+     * @return - the bits of the half float
+     */
+    public static short toHalfFloat(float value) {
+        int bits = Float.floatToIntBits(value);
+        int sign = (bits >>> 16) & 0x8000;
+        int magnitude = bits & 0x7fffffff;
+
+        // NaN and infinity
+        if (magnitude >= 0x7f800000) {
+            return (short) (sign | 0x7c00 | (magnitude > 0x7f800000 ? 0x200 : 0));
+        }
+
+        // round to nearest by adding half of the dropped mantissa bits
+        int rounded = magnitude + 0x1000;
+
+        // too large, becomes infinity
+        if (rounded >= 0x47800000) {
+            return (short) (sign | 0x7c00);
+        }
+
+        // normal half float
+        if (rounded >= 0x38800000) {
+            return (short) (sign | ((rounded - 0x38000000) >>> 13));
+        }
+
+        // too small, becomes zero
+        if (magnitude < 0x33000000) {
+            return (short) sign;
+        }
+
+        // subnormal half float
+        int exponent = magnitude >>> 23;
+        int mantissa = (magnitude & 0x7fffff) | 0x800000;
+        return (short) (sign | ((mantissa + (0x800000 >>> (exponent - 102))) >>> (126 - exponent)));
+    }
+
+    /**
+     * getter method
+     * @return - the size of one vertex, in bytes
+     */
+    public int getStride() {
+        return this.stride;
+    }
+}
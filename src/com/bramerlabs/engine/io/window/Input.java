@@ -28,7 +28,8 @@ public class Input {
     private int windowX;
     private int windowY;
 
-    public Input() {
+    // the GLFW callbacks are native upcalls, so they are only made once a window needs them
+    public void create() {
         keyboard = new GLFWKeyCallback() {
             @Override
             public void invoke(long window, int key, int scancode, int action, int mods) {
@@ -86,6 +87,11 @@ public class Input {
         return scrollY;
     }
 
+    public void setScroll(double x, double y) {
+        scrollX = x;
+        scrollY = y;
+    }
+
     public void destroy() {
         keyboard.free();
         mouseButtons.free();
@@ -143,6 +149,11 @@ public class Input {
         buttons[button] = bool;
     }
 
+    public void setMousePosition(double x, double y) {
+        mouseX = x;
+        mouseY = y;
+    }
+
     public double getMouseX() {
         return mouseX;
     }
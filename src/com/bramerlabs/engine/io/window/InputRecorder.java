@@ -0,0 +1,143 @@
+package com.bramerlabs.engine.io.window;
+
+import org.lwjgl.glfw.GLFW;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+public class InputRecorder {
+
+    // the start of every input log - "INPT" - and the version of the format
+    static final int MAGIC = 0x494E5054;
+    static final short VERSION = 1;
+
+    // the bits of the byte starting each tick, saying which parts of the state changed and follow it
+    static final int KEYS_CHANGED = 1;
+    static final int BUTTONS_CHANGED = 2;
+    static final int CURSOR_MOVED = 4;
+    static final int SCROLLED = 8;
+
+    // the number of keys and mouse buttons an input holds
+    static final int KEY_COUNT = GLFW.GLFW_KEY_LAST;
+    static final int BUTTON_COUNT = GLFW.GLFW_MOUSE_BUTTON_LAST;
+
+    // the log file
+    private String path;
+    private DataOutputStream out;
+
+    // the state written so far, which each tick is compared to
+    private boolean[] keys = new boolean[KEY_COUNT];
+    private int buttons;
+    private double mouseX, mouseY, scrollX, scrollY;
+
+    // the keys that changed in the current tick
+    private short[] changed = new short[KEY_COUNT];
+
+    // the number of ticks recorded
+    private int ticks;
+
+    /**
+     * default constructor for a specified log file - the log holds a header, then one byte per tick saying what changed,
+     * followed by only the changed keys, the button bits, the cursor position and the scroll position
+     * @param path - the path to the log file, which is replaced
+     * @param tickRate - the number of simulation ticks per second, which a replay must use to run the same
+     */
+    public InputRecorder(String path, int tickRate) {
+        this.path = path;
+        try {
+            out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(Paths.get(path))));
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeInt(tickRate);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create input log " + path, e);
+        }
+    }
+
+    /**
+     * writes the state of an input for one simulation tick - call once per tick, before the tick is simulated
+     * @param input - the input
+     */
+    public void record(Input input) {
+        int changedKeys = 0;
+        for (int key = 0; key < KEY_COUNT; key++) {
+            boolean down = input.isKeyDown(key);
+            if (down != keys[key]) {
+                keys[key] = down;
+                changed[changedKeys++] = (short) key;
+            }
+        }
+        int buttons = 0;
+        for (int button = 0; button < BUTTON_COUNT; button++) {
+            if (input.isMouseButtonDown(button)) {
+                buttons |= 1 << button;
+            }
+        }
+
+        int mask = 0;
+        if (changedKeys > 0) {
+            mask |= KEYS_CHANGED;
+        }
+        if (buttons != this.buttons) {
+            mask |= BUTTONS_CHANGED;
+        }
+        if (input.getMouseX() != mouseX || input.getMouseY() != mouseY) {
+            mask |= CURSOR_MOVED;
+        }
+        if (input.getScrollX() != scrollX || input.getScrollY() != scrollY) {
+            mask |= SCROLLED;
+        }
+
+        try {
+            out.writeByte(mask);
+            if ((mask & KEYS_CHANGED) != 0) {
+                out.writeShort(changedKeys);
+                for (int i = 0; i < changedKeys; i++) {
+                    out.writeShort(changed[i]);
+                }
+            }
+            if ((mask & BUTTONS_CHANGED) != 0) {
+                this.buttons = buttons;
+                out.writeByte(buttons);
+            }
+            if ((mask & CURSOR_MOVED) != 0) {
+                mouseX = input.getMouseX();
+                mouseY = input.getMouseY();
+                out.writeDouble(mouseX);
+                out.writeDouble(mouseY);
+            }
+            if ((mask & SCROLLED) != 0) {
+                scrollX = input.getScrollX();
+                scrollY = input.getScrollY();
+                out.writeDouble(scrollX);
+                out.writeDouble(scrollY);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write input log " + path, e);
+        }
+        ticks++;
+    }
+
+    /**
+     * writes what is left of the log and closes the file
+     */
+    public void close() {
+        try {
+            out.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write input log " + path, e);
+        }
+    }
+
+    /**
+     * getter method
+     * @return - the number of ticks recorded
+     */
+    public int getTicks() {
+        return this.ticks;
+    }
+}
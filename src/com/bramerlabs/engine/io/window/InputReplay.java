@@ -0,0 +1,124 @@
+package com.bramerlabs.engine.io.window;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+public class InputReplay implements InputSource {
+
+    // the log file
+    private String path;
+    private DataInputStream in;
+
+    // the number of simulation ticks per second the log was recorded at
+    private int tickRate;
+
+    // the state read so far
+    private boolean[] keys = new boolean[InputRecorder.KEY_COUNT];
+    private int buttons;
+    private double mouseX, mouseY, scrollX, scrollY;
+
+    // the next tick in the log
+    private int tick;
+
+    /**
+     * default constructor for a specified log file, written by an input recorder
+     * @param path - the path to the log file
+     */
+    public InputReplay(String path) {
+        this.path = path;
+        try {
+            in = new DataInputStream(new BufferedInputStream(Files.newInputStream(Paths.get(path))));
+            if (in.readInt() != InputRecorder.MAGIC) {
+                throw new IllegalArgumentException(path + " is not an input log.");
+            }
+            short version = in.readShort();
+            if (version != InputRecorder.VERSION) {
+                throw new IllegalArgumentException("Unsupported input log version " + version + " in " + path);
+            }
+            tickRate = in.readInt();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read input log " + path, e);
+        }
+    }
+
+    /**
+     * sets the whole state of an input to the state recorded for a tick, so callbacks from a window can not change the replay
+     * @param tick - the tick about to be simulated, which must be the next tick in the log
+     * @param input - the input
+     * @return - false once the log has no more ticks
+     */
+    @Override
+    public boolean apply(int tick, Input input) {
+        if (tick != this.tick) {
+            throw new IllegalStateException("Expected tick " + this.tick + " of the input log, got " + tick);
+        }
+        try {
+            int mask = in.read();
+            if (mask < 0) {
+                return false;
+            }
+            if ((mask & InputRecorder.KEYS_CHANGED) != 0) {
+                int changedKeys = in.readShort();
+                for (int i = 0; i < changedKeys; i++) {
+                    int key = in.readShort();
+                    keys[key] = !keys[key];
+                }
+            }
+            if ((mask & InputRecorder.BUTTONS_CHANGED) != 0) {
+                buttons = in.readUnsignedByte();
+            }
+            if ((mask & InputRecorder.CURSOR_MOVED) != 0) {
+                mouseX = in.readDouble();
+                mouseY = in.readDouble();
+            }
+            if ((mask & InputRecorder.SCROLLED) != 0) {
+                scrollX = in.readDouble();
+                scrollY = in.readDouble();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read input log " + path, e);
+        }
+
+        for (int key = 0; key < keys.length; key++) {
+            input.setKeyDown(key, keys[key]);
+        }
+        for (int button = 0; button < InputRecorder.BUTTON_COUNT; button++) {
+            input.setButtonDown(button, (buttons & 1 << button) != 0);
+        }
+        input.setMousePosition(mouseX, mouseY);
+        input.setScroll(scrollX, scrollY);
+        this.tick++;
+        return true;
+    }
+
+    /**
+     * closes the file
+     */
+    public void close() {
+        try {
+            in.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not close input log " + path, e);
+        }
+    }
+
+    /**
+     * getter method
+     * @return - the number of simulation ticks per second the log was recorded at
+     */
+    public int getTickRate() {
+        return this.tickRate;
+    }
+
+    /**
+     * getter method
+     * @return - the number of ticks replayed so far
+     */
+    public int getTick() {
+        return this.tick;
+    }
+}
@@ -0,0 +1,215 @@
+package com.bramerlabs.engine.io.window;
+
+import org.lwjgl.glfw.GLFW;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class InputScript implements InputSource {
+
+    // the kinds of event
+    public static final int KEY = 0;
+    public static final int BUTTON = 1;
+    public static final int CURSOR = 2;
+
+    // the keys a random script presses
+    private static final int[] RANDOM_KEYS = {
+            GLFW.GLFW_KEY_W, GLFW.GLFW_KEY_A, GLFW.GLFW_KEY_S, GLFW.GLFW_KEY_D, GLFW.GLFW_KEY_SPACE, GLFW.GLFW_KEY_LEFT_CONTROL
+    };
+
+    // the events, in the order they were added, as parallel columns - a key or button event stores 1 in x if it is pressed
+    private int[] ticks = new int[16];
+    private int[] kinds = new int[16];
+    private int[] codes = new int[16];
+    private double[] xs = new double[16];
+    private double[] ys = new double[16];
+    private int count;
+
+    // the events sorted by tick, keeping the order they were added within a tick, or null if events were added since
+    private int[] order;
+
+    // the next event to apply - events should all be added before the script is first applied
+    private int next;
+
+    /**
+     * presses a key at the start of a tick
+     * @param tick - the tick
+     * @param key - the GLFW key code
+     * @return - this script
+     */
+    public InputScript press(int tick, int key) {
+        return add(tick, KEY, key, 1, 0);
+    }
+
+    /**
+     * releases a key at the start of a tick
+     * @param tick - the tick
+     * @param key - the GLFW key code
+     * @return - this script
+     */
+    public InputScript release(int tick, int key) {
+        return add(tick, KEY, key, 0, 0);
+    }
+
+    /**
+     * presses a mouse button at the start of a tick
+     * @param tick - the tick
+     * @param button - the GLFW mouse button code
+     * @return - this script
+     */
+    public InputScript pressButton(int tick, int button) {
+        return add(tick, BUTTON, button, 1, 0);
+    }
+
+    /**
+     * releases a mouse button at the start of a tick
+     * @param tick - the tick
+     * @param button - the GLFW mouse button code
+     * @return - this script
+     */
+    public InputScript releaseButton(int tick, int button) {
+        return add(tick, BUTTON, button, 0, 0);
+    }
+
+    /**
+     * moves the cursor at the start of a tick
+     * @param tick - the tick
+     * @param x - the x position of the cursor
+     * @param y - the y position of the cursor
+     * @return - this script
+     */
+    public InputScript moveCursor(int tick, double x, double y) {
+        return add(tick, CURSOR, 0, x, y);
+    }
+
+    /**
+     * helper method to add an event
+     * @param tick - the tick the event happens at
+     * @param kind - the kind of event
+     * @param code - the key or button code
+     * @param x - 1 for a press or 0 for a release, or the x position of the cursor
+     * @param y - the y position of the cursor
+     * @return - this script
+     */
+    private InputScript add(int tick, int kind, int code, double x, double y) {
+        if (tick < 0) {
+            throw new IllegalArgumentException("Ticks must not be negative, got " + tick);
+        }
+        if (count == ticks.length) {
+            int capacity = count * 2;
+            ticks = Arrays.copyOf(ticks, capacity);
+            kinds = Arrays.copyOf(kinds, capacity);
+            codes = Arrays.copyOf(codes, capacity);
+            xs = Arrays.copyOf(xs, capacity);
+            ys = Arrays.copyOf(ys, capacity);
+        }
+        ticks[count] = tick;
+        kinds[count] = kind;
+        codes[count] = code;
+        xs[count] = x;
+        ys[count] = y;
+        count++;
+        order = null;
+        return this;
+    }
+
+    /**
+     * applies the events of a tick to an input, as if they had come from a window - the input keeps its last state after the last event
+     * @param tick - the tick about to be simulated
+     * @param input - the input
+     * @return - true, as a script never runs out
+     */
+    @Override
+    public boolean apply(int tick, Input input) {
+        if (order == null) {
+            sort();
+        }
+        while (next < count && ticks[order[next]] <= tick) {
+            int e = order[next++];
+            switch (kinds[e]) {
+                case KEY:
+                    input.setKeyDown(codes[e], xs[e] != 0);
+                    break;
+                case BUTTON:
+                    input.setButtonDown(codes[e], xs[e] != 0);
+                    break;
+                case CURSOR:
+                    input.setMousePosition(xs[e], ys[e]);
+                    break;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * starts the script over, so it can drive another input from the first tick
+     */
+    public void rewind() {
+        next = 0;
+    }
+
+    /**
+     * helper method to sort the events by tick - the sort is stable, so events of one tick apply in the order they were added
+     */
+    private void sort() {
+        long[] keys = new long[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = (long) ticks[i] << 32 | i;
+        }
+        Arrays.sort(keys);
+        order = new int[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = (int) keys[i];
+        }
+    }
+
+    /**
+     * getter method
+     * @return - the tick of the last event, or -1 if the script is empty
+     */
+    public int getLastTick() {
+        int last = -1;
+        for (int i = 0; i < count; i++) {
+            last = Math.max(last, ticks[i]);
+        }
+        return last;
+    }
+
+    /**
+     * getter method
+     * @return - the number of events
+     */
+    public int getEventCount() {
+        return this.count;
+    }
+
+    /**
+     * creates a script of random walking, running, jumping and looking around, the same for the same seed
+     * @param seed - the seed of the random events
+     * @param length - the number of ticks the script covers
+     * @return - the script
+     */
+    public static InputScript random(long seed, int length) {
+        Random random = new Random(seed);
+        InputScript script = new InputScript();
+        boolean[] held = new boolean[RANDOM_KEYS.length];
+
+        // look around with the left button held, so the camera turns the walking direction
+        script.pressButton(0, GLFW.GLFW_MOUSE_BUTTON_LEFT);
+        double cursorX = 0;
+        for (int tick = 0; tick < length; tick++) {
+            // each key changes about twice a second at sixty ticks per second
+            for (int k = 0; k < RANDOM_KEYS.length; k++) {
+                if (random.nextInt(30) == 0) {
+                    held[k] = !held[k];
+                    script.add(tick, KEY, RANDOM_KEYS[k], held[k] ? 1 : 0, 0);
+                }
+            }
+            if (random.nextInt(10) == 0) {
+                cursorX += random.nextGaussian() * 50;
+                script.moveCursor(tick, cursorX, 0);
+            }
+        }
+        return script;
+    }
+}
@@ -0,0 +1,12 @@
+package com.bramerlabs.engine.io.window;
+
+public interface InputSource {
+
+    /**
+     * sets the state of an input for a simulation tick, in place of the window callbacks
+     * @param tick - the tick about to be simulated, counting from 0 - called once per tick, in order
+     * @param input - the input
+     * @return - false if the source has no input for the tick and the session is over
+     */
+    boolean apply(int tick, Input input);
+}
@@ -41,10 +41,6 @@ public class Window {
     // the window handle
     private long windowHandle;
 
-    // framerate calculation
-    private int frames;
-    private long time;
-
     // window altering
     private boolean isFullscreen = false;
 
@@ -80,9 +76,6 @@ public class Window {
      * initialize the window
      */
     public void create() {
-        // the start time - used for framerate calculations
-        time = System.currentTimeMillis();
-
         // attempt to initialize the GLFW window
         if (!GLFW.glfwInit()) {
             throw new IllegalStateException("Unable to initialize the GLFW.");
@@ -144,6 +137,7 @@ public class Window {
         GL46.glViewport(0, 0, defaultWidth, defaultHeight);
 
         // set the callbacks
+        input.create();
         GLFW.glfwSetKeyCallback(windowHandle, input.getKeyboardCallback());
         GLFW.glfwSetMouseButtonCallback(windowHandle, input.getMouseButtonsCallback());
         GLFW.glfwSetCursorPosCallback(windowHandle, input.getCursorPositionCallback());
@@ -161,7 +155,6 @@ public class Window {
 
         // set the framerate of the window
         GLFW.glfwSwapInterval(FRAMERATE);
-        GLFW.glfwSetWindowTitle(windowHandle, TITLE + " | FPS: " + frames);
     }
 
     public void update() {
@@ -212,14 +205,14 @@ public class Window {
 
         // poll GLFW for callbacks
         GLFW.glfwPollEvents();
+    }
 
-        // calculate framerate
-        frames++;
-        if (System.currentTimeMillis() > time + 1000) {
-            GLFW.glfwSetWindowTitle(windowHandle, TITLE + " | FPS: " + frames);
-            time = System.currentTimeMillis();
-            frames = 0;
-        }
+    /**
+     * shows extra information after the title of the window
+     * @param info - the information to show
+     */
+    public void setTitleInfo(String info) {
+        GLFW.glfwSetWindowTitle(windowHandle, TITLE + " | " + info);
     }
 
     /**
@@ -0,0 +1,264 @@
+package com.bramerlabs.engine.main;
+
+import com.bramerlabs.engine.io.window.Input;
+import com.bramerlabs.engine.io.window.InputRecorder;
+import com.bramerlabs.engine.io.window.InputReplay;
+import com.bramerlabs.engine.io.window.InputScript;
+import com.bramerlabs.engine.io.window.InputSource;
+import com.bramerlabs.engine.math.Vector3f;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class Headless {
+
+    // the simulation, stepped on the calling thread
+    private Simulation simulation;
+
+    // drives the input of the simulation
+    private InputSource source;
+
+    // writes the input of every tick to a log, or null
+    private InputRecorder recorder;
+
+    // the length of a tick, in seconds
+    private float tickLength;
+
+    // the number of ticks simulated so far
+    private int tick;
+
+    /**
+     * default constructor for a specified input source and simulation tick rate - no window or OpenGL context is created
+     * @param source - drives the player, applied at the start of each tick
+     * @param tickRate - the number of simulation ticks per second
+     */
+    public Headless(InputSource source, int tickRate) {
+        this.source = source;
+        this.tickLength = 1.0f / tickRate;
+        this.simulation = new Simulation(new Input(), 1);
+    }
+
+    /**
+     * runs the simulation as fast as it can
+     * @param ticks - the number of ticks to run for, counted from the start of the session
+     * @return - the number of ticks simulated, fewer than asked for if the input source ran out
+     */
+    public int run(int ticks) {
+        while (tick < ticks && step()) {
+            // keep stepping
+        }
+        return tick;
+    }
+
+    /**
+     * simulates one tick - a player that falls out of the level is put back at the spawn point, so only the input ends a session
+     * @return - false if the session is over, because the input source ran out
+     */
+    public boolean step() {
+        Input input = simulation.getInput();
+        if (!source.apply(tick, input)) {
+            return false;
+        }
+        if (recorder != null) {
+            recorder.record(input);
+        }
+        simulation.update(tickLength);
+        tick++;
+        return true;
+    }
+
+    /**
+     * writes the input of every following tick to a log, which replays the session
+     * @param recorder - the recorder, or null to stop recording
+     */
+    public void setRecorder(InputRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    /**
+     * finds a hash of the state of the session, equal for sessions that ran the same
+     * @return - the hash
+     */
+    public int getChecksum() {
+        Vector3f position = simulation.getPlayer().getPosition();
+        int hash = tick;
+        hash = 31 * hash + simulation.getFalls();
+        hash = 31 * hash + Float.floatToIntBits(position.getX());
+        hash = 31 * hash + Float.floatToIntBits(position.getY());
+        hash = 31 * hash + Float.floatToIntBits(position.getZ());
+        return hash;
+    }
+
+    /**
+     * releases the simulation
+     */
+    public void destroy() {
+        simulation.destroy();
+    }
+
+    /**
+     * getter method
+     * @return - the simulation
+     */
+    public Simulation getSimulation() {
+        return this.simulation;
+    }
+
+    /**
+     * getter method
+     * @return - the number of ticks simulated so far
+     */
+    public int getTick() {
+        return this.tick;
+    }
+
+    /**
+     * runs simulated sessions without a window, in one of three modes
+     * "record file ticks seed tickRate" records one random session to an input log
+     * "replay file" replays an input log and prints the distribution of tick times, to compare builds on the same session
+     * "sessions ticks seed tickRate" runs many random sessions at once and prints how fast they ran
+     * every mode prints a checksum of how the sessions ended, which is the same on every machine for the same arguments
+     * @param args - the mode and its arguments
+     */
+    public static void main(String[] args) throws InterruptedException, ExecutionException {
+        if (args.length > 0 && args[0].equals("record")) {
+            record(args);
+        } else if (args.length > 0 && args[0].equals("replay")) {
+            replay(args);
+        } else {
+            runSessions(args);
+        }
+    }
+
+    /**
+     * helper method to record one random session to an input log - the session always runs every tick asked for,
+     * since a player that falls out of the level is put back rather than ending it
+     * @param args - "record", the path to the log, the number of ticks, the seed, and the tick rate
+     */
+    private static void record(String[] args) {
+        String path = args[1];
+        int ticks = args.length > 2 ? Integer.parseInt(args[2]) : Main.DEFAULT_TICK_RATE * 600;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 1;
+        int tickRate = args.length > 4 ? Integer.parseInt(args[4]) : Main.DEFAULT_TICK_RATE;
+
+        Headless session = new Headless(InputScript.random(seed, ticks), tickRate);
+        InputRecorder recorder = new InputRecorder(path, tickRate);
+        session.setRecorder(recorder);
+        session.run(ticks);
+        recorder.close();
+        session.destroy();
+        if (recorder.getTicks() != ticks) {
+            throw new IllegalStateException("Recorded " + recorder.getTicks() + " of " + ticks + " ticks to " + path);
+        }
+
+        long bytes;
+        try {
+            bytes = Files.size(Paths.get(path));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read the size of input log " + path, e);
+        }
+        System.out.printf("recorded %d ticks to %s (%d bytes), %d falls, checksum %08x%n", recorder.getTicks(), path, bytes,
+                session.getSimulation().getFalls(), session.getChecksum());
+    }
+
+    /**
+     * helper method to replay an input log, timing every tick
+     * @param args - "replay" and the path to the log
+     */
+    private static void replay(String[] args) {
+        String path = args[1];
+        InputReplay replay = new InputReplay(path);
+        Headless session = new Headless(replay, replay.getTickRate());
+
+        long[] times = new long[1024];
+        int count = 0;
+        long start = System.nanoTime();
+        while (true) {
+            long before = System.nanoTime();
+            if (!session.step()) {
+                break;
+            }
+            if (count == times.length) {
+                times = Arrays.copyOf(times, count * 2);
+            }
+            times[count++] = System.nanoTime() - before;
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        replay.close();
+        session.destroy();
+
+        Arrays.sort(times, 0, count);
+        System.out.printf("replayed %d ticks of %s in %.2f s%n", count, path, seconds);
+        if (count > 0) {
+            System.out.printf("tick time p50 %.1f us, p90 %.1f us, p99 %.1f us, max %.1f us%n", percentile(times, count, 0.5),
+                    percentile(times, count, 0.9), percentile(times, count, 0.99), times[count - 1] / 1e3);
+        }
+        System.out.printf("%d falls, checksum %08x%n", session.getSimulation().getFalls(), session.getChecksum());
+    }
+
+    /**
+     * helper method to find a percentile of sorted times
+     * @param times - the times, in nanoseconds, sorted
+     * @param count - the number of times
+     * @param fraction - the percentile, from 0 to 1
+     * @return - the time at the percentile, in microseconds
+     */
+    private static double percentile(long[] times, int count, double fraction) {
+        return times[Math.min(count - 1, (int) (fraction * count))] / 1e3;
+    }
+
+    /**
+     * helper method to run many random sessions at once - only sessions that ran every tick count towards the sessions per minute
+     * @param args - the number of sessions, the ticks per session, the seed of the first session, and the tick rate
+     */
+    private static void runSessions(String[] args) throws InterruptedException, ExecutionException {
+        int sessions = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int ticks = args.length > 1 ? Integer.parseInt(args[1]) : Main.DEFAULT_TICK_RATE * 60;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 1;
+        int tickRate = args.length > 3 ? Integer.parseInt(args[3]) : Main.DEFAULT_TICK_RATE;
+
+        // each session runs on one thread, so the sessions themselves are spread over the cores
+        ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        long start = System.nanoTime();
+        List<Future<int[]>> results = new ArrayList<>();
+        for (int i = 0; i < sessions; i++) {
+            long sessionSeed = seed + i;
+            results.add(executor.submit(() -> {
+                Headless session = new Headless(InputScript.random(sessionSeed, ticks), tickRate);
+                try {
+                    return new int[] {session.run(ticks), session.getChecksum(), session.getSimulation().getFalls()};
+                } finally {
+                    session.destroy();
+                }
+            }));
+        }
+
+        // combine the results in session order, so the checksum does not depend on which session finished first
+        long totalTicks = 0, falls = 0;
+        int completed = 0, checksum = 1;
+        for (Future<int[]> result : results) {
+            int[] session = result.get();
+            totalTicks += session[0];
+            if (session[0] == ticks) {
+                completed++;
+            }
+            falls += session[2];
+            checksum = 31 * checksum + session[1];
+        }
+        executor.shutdown();
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%d of %d sessions ran all %d ticks, %d ticks in %.2f s - %.0f full sessions per minute, %.0f ticks per second%n",
+                completed, sessions, ticks, totalTicks, seconds, completed / seconds * 60, totalTicks / seconds);
+        System.out.printf("the players fell out of the level %d times and were put back, checksum %08x%n", falls, checksum);
+    }
+}
@@ -2,18 +2,37 @@ package com.bramerlabs.engine.main;
 
 import com.bramerlabs.engine.graphics.*;
 import com.bramerlabs.engine.io.window.Input;
+import com.bramerlabs.engine.io.window.InputRecorder;
+import com.bramerlabs.engine.io.window.InputReplay;
 import com.bramerlabs.engine.io.window.Window;
-import com.bramerlabs.engine.math.Vector3f;
 import com.bramerlabs.engine.objects.Camera;
+import com.bramerlabs.engine.objects.EntityStore;
 import com.bramerlabs.engine.objects.GameObject;
-import com.bramerlabs.engine.objects.game_objects.Cube;
 import com.bramerlabs.engine.objects.game_objects.Player;
+import com.bramerlabs.engine.objects.voxel.Chunk;
+import com.bramerlabs.engine.objects.voxel.GreedyMesher;
+import com.bramerlabs.engine.objects.voxel.VoxelWorld;
+import com.bramerlabs.engine.profiling.GpuTimer;
+import com.bramerlabs.engine.profiling.Profiler;
 import org.lwjgl.glfw.GLFW;
 
 import java.util.ArrayList;
+import java.util.List;
 
 public class Main implements Runnable {
 
+    // the default number of simulation ticks per second
+    public static final int DEFAULT_TICK_RATE = 60;
+
+    // the longest frame the simulation will catch up on - slower frames slow the game down instead
+    private static final double MAX_FRAME_TIME = 0.25;
+
+    // the time each frame may spend uploading streamed meshes
+    private static final long UPLOAD_BUDGET = 2_000_000L;
+
+    // the number of simulation ticks per second
+    private int tickRate;
+
     // the main window of the game
     private Window window;
 
@@ -23,35 +42,114 @@ public class Main implements Runnable {
     // used to render objects
     private Renderer renderer;
 
+    // the camera matrices shared by every shader, uploaded once per frame
+    private FrameData frameData = new FrameData();
+
+    // used to render the level chunks with one call per shader and texture
+    private IndirectRenderer indirectRenderer;
+
+    // the shader used to paint voxel chunks
+    private Shader voxelShader;
+
+    // the meshed voxel chunks, one object per chunk and block type
+    private List<GameObject> chunks = new ArrayList<>();
+
+    // the packed positions and boxes of the chunks, culled with one linear scan per frame
+    private EntityStore chunkEntities = new EntityStore();
+
+    // the shared buffers every chunk mesh is stored in, so the chunks draw from one vertex array
+    private MeshArena chunkArena;
+
+    // meshes the chunks in the background, so the level streams in without stalling frames
+    private MeshLoader loader;
+
     // used to handle inputs
     private Input input = new Input();
 
-    // test game objects
-    private ArrayList<Cube> cubes = new ArrayList<>();
+    // writes the input of every tick to the log named by the input.record property, or null
+    private InputRecorder recorder;
+
+    // replaces the window input with the log named by the input.replay property, or null
+    private InputReplay replay;
+
+    // the number of ticks simulated so far
+    private int tick;
 
-    // test player
-    private Player player;
+    // the level, the player and the physics - everything the game runs without a window
+    private Simulation simulation;
 
-    // the camera
-    public Camera camera = new Camera(new Vector3f(0, 0, 2), new Vector3f(0, 0, 0), input);
+    // records frame times, draw counts and allocations
+    private Profiler profiler = new Profiler();
+
+    // times the GPU work of each frame
+    private GpuTimer gpuTimer = new GpuTimer();
+
+    // the time the window title was last updated with the profiler summary
+    private long lastTitleUpdate;
 
     /**
      * main method
-     * @param args - args
+     * @param args - args, the first of which may be the tick rate
      */
     public static void main(String[] args) {
-        new Main().start();
+        int tickRate = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_TICK_RATE;
+        new Main(tickRate).start();
     }
 
     /**
-     * runs the game
+     * default constructor for a specified simulation tick rate
+     * @param tickRate - the number of simulation ticks per second
+     */
+    public Main(int tickRate) {
+        this.tickRate = tickRate;
+    }
+
+    /**
+     * runs the game - the simulation advances in fixed ticks, and rendering runs as often as it can
      */
     public void run() {
         init();
+
+        double tickLength = 1.0 / tickRate;
+        double accumulator = 0;
+        long previousTime = System.nanoTime();
+
         while (!window.shouldClose()) {
-            update();
-            render();
+            profiler.beginFrame();
+            long currentTime = System.nanoTime();
+            double frameTime = (currentTime - previousTime) / 1e9;
+            previousTime = currentTime;
+
+            // cap the catch up so one slow frame can not cause more and more ticks per frame
+            accumulator += Math.min(frameTime, MAX_FRAME_TIME);
+
+            window.update();
+            profiler.begin(Profiler.UPDATE);
+            while (accumulator >= tickLength) {
+                update((float) tickLength);
+                accumulator -= tickLength;
+            }
+            profiler.end(Profiler.UPDATE);
+
+            profiler.begin(Profiler.RENDER);
+            gpuTimer.begin();
+            render((float) (accumulator / tickLength));
+            gpuTimer.end(profiler);
+            profiler.end(Profiler.RENDER);
+
+            // must be called at the end
+            profiler.begin(Profiler.SWAP);
+            window.swapBuffers();
+            profiler.end(Profiler.SWAP);
+
             if (input.isMouseButtonDown(GLFW.GLFW_MOUSE_BUTTON_LEFT)) window.mouseState(true);
+            profiler.endFrame();
+
+            // show the frame statistics once a second
+            if (currentTime > lastTitleUpdate + 1_000_000_000L) {
+                window.setTitleInfo(profiler.getSummary());
+                lastTitleUpdate = currentTime;
+            }
         }
         close();
     }
@@ -64,50 +162,95 @@ public class Main implements Runnable {
         window = new Window(input);
         window.create();
 
-        // create game objects here
-        String dPath = "/textures/3ttest.png";
-        cubes.add(new Cube(new Vector3f(0, 0, 0), new Vector3f(0, 0, 0), new Vector3f(4, 1, 4), "/textures/3ttest.png"));
-        cubes.add(new Cube(new Vector3f(0, -1, 0), new Vector3f(0, 0, 0), new Vector3f(8, 1, 8), "/textures/3ttest.png"));
-        for (int i = 1; i < 16; i++) {
-            cubes.add(new Cube(new Vector3f(4*i, 0, 0), dPath)); // test parkour lol
+        // replaying a log runs at the tick rate it was recorded at, so every tick sees the same input as when it was recorded
+        String replayPath = System.getProperty("input.replay");
+        if (replayPath != null) {
+            replay = new InputReplay(replayPath);
+            tickRate = replay.getTickRate();
         }
-        for (Cube cube : cubes) {
-            cube.createMesh();
+        String recordPath = System.getProperty("input.record");
+        if (recordPath != null) {
+            recorder = new InputRecorder(recordPath, tickRate);
         }
 
-        // creating the player
-        player = new Player(new Vector3f(0, 2, 0), dPath);
-        player.addInput(input);
-        player.createMesh();
-        player.addCamera(camera);
+        // start the profiler
+        gpuTimer.create();
+        profiler.register();
+
+        // create the per-frame uniform buffer
+        frameData.create();
+
+        // create the chunk buffers before any chunk is meshed into them
+        chunkArena = new MeshArena(VertexFormat.STANDARD, 1 << 16, 1 << 17);
+        chunkArena.create();
+        loader = new MeshLoader(chunkArena);
+
+        // create the level and the player, then mesh them
+        simulation = new Simulation(input);
+        VoxelWorld world = simulation.getWorld();
+        for (Chunk chunk : world.getChunks()) {
+            loader.submit(() -> new GreedyMesher().mesh(world, chunk));
+        }
+        simulation.getPlayer().createMesh();
 
         // create the shader
         shader = new Shader("/shaders/mainVertex.glsl", "/shaders/mainFragment.glsl");
 
+        // initialize the shader - must be done before the renderer looks up its uniforms
+        shader.create();
+
         // create the renderer based on the main window and the shader
-        renderer = new Renderer(window, shader);
+        renderer = new Renderer(shader);
 
-        // initialize the shader
-        shader.create();
+        // create the shader that tiles the block texture across merged faces
+        voxelShader = new Shader("/shaders/voxelVertex.glsl", "/shaders/voxelFragment.glsl");
+        voxelShader.create();
+        indirectRenderer = new IndirectRenderer(voxelShader);
+        indirectRenderer.create();
     }
 
     /**
      * releases the objects
      */
     private void close() {
-        // release the window
-        window.destroy();
+        // save the frame statistics if asked to
+        String profilePath = System.getProperty("profile.csv");
+        if (profilePath != null) {
+            profiler.dumpCsv(profilePath);
+        }
+        profiler.unregister();
+        gpuTimer.destroy();
 
-        // release the game objects
-        for (Cube cube : cubes) {
-            cube.destroy();
+        // finish the input logs
+        if (recorder != null) {
+            recorder.close();
         }
+        if (replay != null) {
+            replay.close();
+        }
+
+        // stop meshing and stepping before anything they use is released
+        loader.destroy();
+        simulation.destroy();
+
+        // release the level chunks
+        for (GameObject chunk : chunks) {
+            chunk.destroy();
+        }
+        chunkArena.destroy();
 
         // release the player
-        player.destroy();
+        simulation.getPlayer().destroy();
 
-        // release the shader
+        // release the renderer and the shaders
+        renderer.destroy();
+        indirectRenderer.destroy();
         shader.destroy();
+        voxelShader.destroy();
+        frameData.destroy();
+
+        // release the window last - the releases above still need its OpenGL context
+        window.destroy();
     }
 
     /**
@@ -119,35 +262,59 @@ public class Main implements Runnable {
     }
 
     /**
-     * update the window and game objects
+     * update the game objects by one simulation tick
+     * @param dt - the length of the tick, in seconds
      */
-    private void update() {
-        ArrayList<GameObject> gameObjects = new ArrayList<>(cubes);
-
-        window.update();
-        player.update(gameObjects);
-        camera.update(player);
-
-        System.out.println(player.getPosition());
-
-        // if the player goes too low close the window
-        if (player.getPosition().getY() < -50) {
+    private void update(float dt) {
+        // the replay ends the session once its log runs out
+        if (replay != null && !replay.apply(tick, input)) {
             window.close();
+            return;
         }
+        if (recorder != null) {
+            recorder.record(input);
+        }
+        simulation.update(dt);
+        tick++;
     }
 
     /**
      * render the game objects
+     * @param alpha - how far the current frame is between the previous and the next tick, from 0 to 1
      */
-    private void render() {
-        // render the game objects
-        for (Cube cube : cubes) {
-            renderer.renderMesh(cube, camera);
+    private void render(float alpha) {
+        // blend the moving objects between ticks and follow the player with the camera
+        Player player = simulation.getPlayer();
+        Camera camera = simulation.getCamera();
+        player.interpolate(alpha);
+        camera.follow(player);
+
+        // create the chunk meshes that finished building
+        int uploaded = chunks.size();
+        loader.upload(UPLOAD_BUDGET, chunks);
+        for (int i = uploaded; i < chunks.size(); i++) {
+            chunkEntities.add(chunks.get(i));
         }
 
-        renderer.renderMesh(player, camera);
+        // compute the camera matrices once for every shader
+        frameData.update(camera, window.getProjectionMatrix(), (float) GLFW.glfwGetTime());
+
+        // render the game objects
+        renderer.resetStats();
+        indirectRenderer.resetStats();
+        indirectRenderer.begin(frameData);
+        indirectRenderer.submit(chunkEntities);
+        indirectRenderer.end();
+        indirectRenderer.endFrame();
+
+        renderer.begin(frameData);
+        renderer.submit(player);
+        renderer.end();
+        renderer.endFrame();
 
-        // must be called at the end
-        window.swapBuffers();
+        profiler.recordDraws(renderer.getDrawCalls() + indirectRenderer.getDrawCalls(),
+                renderer.getStateChanges() + indirectRenderer.getStateChanges());
+        profiler.recordCulling(renderer.getObjectsDrawn() + indirectRenderer.getObjectsDrawn(),
+                renderer.getObjectsCulled() + indirectRenderer.getObjectsCulled());
     }
 }
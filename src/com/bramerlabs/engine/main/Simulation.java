@@ -0,0 +1,153 @@
+package com.bramerlabs.engine.main;
+
+import com.bramerlabs.engine.io.window.Input;
+import com.bramerlabs.engine.math.Vector3f;
+import com.bramerlabs.engine.objects.Camera;
+import com.bramerlabs.engine.objects.game_objects.Player;
+import com.bramerlabs.engine.objects.physics.PhysicsWorld;
+import com.bramerlabs.engine.objects.voxel.VoxelWorld;
+
+public class Simulation {
+
+    // the block id of the test level
+    private static final short TEST_BLOCK = 1;
+
+    // the texture of the test level and the player
+    private static final String TEXTURE = "/textures/3ttest.png";
+
+    // the height below which the player has fallen out of the level, and where it is put back
+    private static final float FALL_LIMIT = -50;
+    private static final Vector3f SPAWN = new Vector3f(0, 2, 0);
+
+    // the keys, mouse buttons and cursor driving the player - from a window or a script
+    private Input input;
+
+    // the level, which the player collides with
+    private VoxelWorld world = new VoxelWorld();
+
+    // moves every dynamic body against the level and each other
+    private PhysicsWorld physics;
+
+    // test player
+    private Player player;
+
+    // the camera, which sets the direction the player walks in
+    private Camera camera;
+
+    // the number of times the player fell out of the level and was put back
+    private int falls;
+
+    /**
+     * default constructor for a specified input source, stepping islands on every core but one
+     * @param input - the keys, mouse buttons and cursor driving the player
+     */
+    public Simulation(Input input) {
+        this(input, Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+    }
+
+    /**
+     * constructor for a specified input source and number of physics threads - nothing here needs a window or an OpenGL context
+     * @param input - the keys, mouse buttons and cursor driving the player
+     * @param parallelism - the number of threads stepping physics islands, 1 to step everything on the calling thread
+     */
+    public Simulation(Input input, int parallelism) {
+        this.input = input;
+
+        // create the level here - block (x, y, z) is a unit cube centered at (x, y, z)
+        world.setMaterial(TEST_BLOCK, TEXTURE);
+        world.fill(-2, 2, 0, 0, -2, 2, TEST_BLOCK);
+        world.fill(-4, 4, -1, -1, -4, 4, TEST_BLOCK);
+        for (int i = 1; i < 16; i++) {
+            world.setBlock(4*i, 0, 0, TEST_BLOCK); // test parkour lol
+        }
+
+        // creating the player
+        camera = new Camera(new Vector3f(0, 0, 2), new Vector3f(0, 0, 0), input);
+        player = new Player(new Vector3f(SPAWN), TEXTURE);
+        player.addInput(input);
+        player.addCamera(camera);
+        physics = new PhysicsWorld(world, parallelism);
+        physics.add(player.getBody());
+    }
+
+    /**
+     * update the game objects by one simulation tick
+     * @param dt - the length of the tick, in seconds
+     */
+    public void update(float dt) {
+        // the camera sets the walking direction, so it turns with the ticks rather than the frames
+        camera.rotate();
+        player.applyInput();
+        physics.step(dt);
+
+        // a player that fell out of the level starts over, so a session always lasts as long as its input
+        if (player.getPosition().getY() < FALL_LIMIT) {
+            respawn();
+        }
+    }
+
+    /**
+     * helper method to put the player back at the spawn point, standing still
+     */
+    private void respawn() {
+        player.setPosition(SPAWN.getX(), SPAWN.getY(), SPAWN.getZ());
+        player.savePreviousPosition();
+        player.getBody().setVerticalVelocity(0);
+        falls++;
+    }
+
+    /**
+     * getter method
+     * @return - the number of times the player fell out of the level and was put back at the spawn point
+     */
+    public int getFalls() {
+        return this.falls;
+    }
+
+    /**
+     * stops the physics threads - the meshes of the player and level are released by whoever created them
+     */
+    public void destroy() {
+        physics.destroy();
+    }
+
+    /**
+     * getter method
+     * @return - the keys, mouse buttons and cursor driving the player
+     */
+    public Input getInput() {
+        return this.input;
+    }
+
+    /**
+     * getter method
+     * @return - the level
+     */
+    public VoxelWorld getWorld() {
+        return this.world;
+    }
+
+    /**
+     * getter method
+     * @return - the physics world
+     */
+    public PhysicsWorld getPhysics() {
+        return this.physics;
+    }
+
+    /**
+     * getter method
+     * @return - the player
+     */
+    public Player getPlayer() {
+        return this.player;
+    }
+
+    /**
+     * getter method
+     * @return - the camera
+     */
+    public Camera getCamera() {
+        return this.camera;
+    }
+}
@@ -10,6 +10,14 @@ public class Matrix4f {
     // the elements of this matrix
     private float[] elements = new float[SIZE * SIZE];
 
+    // the axes rotations are performed around
+    private static final Vector3f X_AXIS = new Vector3f(1, 0, 0);
+    private static final Vector3f Y_AXIS = new Vector3f(0, 1, 0);
+    private static final Vector3f Z_AXIS = new Vector3f(0, 0, 1);
+
+    // scratch matrices used by transform and view, so that they do not allocate
+    private static final ThreadLocal<Matrix4f[]> scratch = ThreadLocal.withInitial(() -> new Matrix4f[] {new Matrix4f(), new Matrix4f()});
+
     /**
      * default constructor - makes a 0 matrix
      */
@@ -26,11 +34,20 @@ public class Matrix4f {
      * @return - identity matrix
      */
     public static Matrix4f identity() {
-        Matrix4f result = new Matrix4f();
+        return identity(new Matrix4f());
+    }
+
+    /**
+     * sets a matrix to the identity matrix
+     * @param dest - the matrix to be set
+     * @return - dest
+     */
+    public static Matrix4f identity(Matrix4f dest) {
+        Arrays.fill(dest.elements, 0);
         for (int i = 0; i < SIZE; i++) {
-            result.elements[i * SIZE + i] = 1;
+            dest.elements[i * SIZE + i] = 1;
         }
-        return result;
+        return dest;
     }
 
     /**
@@ -39,13 +56,35 @@ public class Matrix4f {
      * @return - the created translation matrix
      */
     public static Matrix4f translate(Vector3f translate) {
-        Matrix4f result = Matrix4f.identity();
+        return translate(translate, new Matrix4f());
+    }
 
-        result.set(3, 0, translate.getX());
-        result.set(3, 1, translate.getY());
-        result.set(3, 2, translate.getZ());
+    /**
+     * sets a matrix to the translation matrix of a vector
+     * @param translate - the translation vector
+     * @param dest - the matrix to be set
+     * @return - dest
+     */
+    public static Matrix4f translate(Vector3f translate, Matrix4f dest) {
+        return translate(translate.getX(), translate.getY(), translate.getZ(), dest);
+    }
 
-        return result;
+    /**
+     * sets a matrix to the translation matrix of three components
+     * @param x - the x translation
+     * @param y - the y translation
+     * @param z - the z translation
+     * @param dest - the matrix to be set
+     * @return - dest
+     */
+    public static Matrix4f translate(float x, float y, float z, Matrix4f dest) {
+        identity(dest);
+
+        dest.set(3, 0, x);
+        dest.set(3, 1, y);
+        dest.set(3, 2, z);
+
+        return dest;
     }
 
     /**
@@ -55,7 +94,18 @@ public class Matrix4f {
      * @return - the new rotation matrix representing this rotation
      */
     public static Matrix4f rotate(float angle, Vector3f axis) {
-        Matrix4f result = Matrix4f.identity();
+        return rotate(angle, axis, new Matrix4f());
+    }
+
+    /**
+     * sets a matrix to the rotation matrix for a specified angle around a specified axis
+     * @param angle - the angle by which the matrix should be rotated
+     * @param axis - the axis around which the matrix should be rotated
+     * @param dest - the matrix to be set
+     * @return - dest
+     */
+    public static Matrix4f rotate(float angle, Vector3f axis, Matrix4f dest) {
+        Matrix4f result = identity(dest);
 
         float cos = (float) Math.cos(Math.toRadians(angle));
         float sin = (float) Math.sin(Math.toRadians(angle));
@@ -80,13 +130,23 @@ public class Matrix4f {
      * @return - a matrix representing the scale operations specified by scalar
      */
     public static Matrix4f scale(Vector3f scalar) {
-        Matrix4f result = Matrix4f.identity();
+        return scale(scalar, new Matrix4f());
+    }
+
+    /**
+     * sets a matrix to the scale matrix of some group of scalars
+     * @param scalar - a vector with all the scalars to scale the matrix by
+     * @param dest - the matrix to be set
+     * @return - dest
+     */
+    public static Matrix4f scale(Vector3f scalar, Matrix4f dest) {
+        identity(dest);
 
-        result.set(0, 0, scalar.getX());
-        result.set(1, 1, scalar.getY());
-        result.set(2, 2, scalar.getZ());
+        dest.set(0, 0, scalar.getX());
+        dest.set(1, 1, scalar.getY());
+        dest.set(2, 2, scalar.getZ());
 
-        return result;
+        return dest;
     }
 
     /**
@@ -97,22 +157,31 @@ public class Matrix4f {
      * @return - a matrix representing all of these operations
      */
     public static Matrix4f transform(Vector3f position, Vector3f rotation, Vector3f scale) {
+        return transform(position, rotation, scale, new Matrix4f());
+    }
 
-        // create translation matrix
-        Matrix4f translationMatrix = Matrix4f.translate(position);
+    /**
+     * sets a matrix to the total transformation matrix consisting of a positional translation, rotation, and scale.
+     * @param position - the position to translate to
+     * @param rotation - the rotations to be performed along the x, y, z axes - held as [theta, phi, gamma]
+     * @param scale - the scale vector
+     * @param dest - the matrix to be set
+     * @return - dest
+     */
+    public static Matrix4f transform(Vector3f position, Vector3f rotation, Vector3f scale, Matrix4f dest) {
+        Matrix4f[] temp = scratch.get();
+        Matrix4f result = temp[0], component = temp[1];
 
-        // create components of rotation matrix
-        Matrix4f rotXMatrix = Matrix4f.rotate(rotation.getX(), new Vector3f(1, 0, 0));
-        Matrix4f rotYMatrix = Matrix4f.rotate(rotation.getY(), new Vector3f(0, 1, 0));
-        Matrix4f rotZMatrix = Matrix4f.rotate(rotation.getZ(), new Vector3f(0, 0, 1));
         // combine rotation matrix components into full rotation matrix
-        Matrix4f rotationMatrix = Matrix4f.multiply(rotXMatrix, Matrix4f.multiply(rotYMatrix, rotZMatrix));
+        rotate(rotation.getY(), Y_AXIS, result);
+        mulInto(result, rotate(rotation.getZ(), Z_AXIS, component), result);
+        mulInto(rotate(rotation.getX(), X_AXIS, component), result, result);
 
-        // create scale matrix
-        Matrix4f scaleMatrix = Matrix4f.scale(scale);
+        // apply the scale matrix
+        mulInto(scale(scale, component), result, result);
 
         // combine all matrices into one transformation matrix
-        return Matrix4f.multiply(Matrix4f.multiply(scaleMatrix, rotationMatrix), translationMatrix);
+        return mulInto(result, translate(position, component), dest);
     }
 
     /**
@@ -146,39 +215,77 @@ public class Matrix4f {
      * @return - the view matrix
      */
     public static Matrix4f view(Vector3f position, Vector3f rotation) {
-        // create negative position vector and make translation matrix of it
-        Vector3f negative = new Vector3f(-position.getX(), -position.getY(), -position.getZ());
-        Matrix4f translationMatrix = Matrix4f.translate(negative);
+        return view(position, rotation, new Matrix4f());
+    }
+
+    /**
+     * sets a matrix to the view matrix for a specified position and rotation
+     * @param position - the position of the viewer
+     * @param rotation - the rotation of the viewer
+     * @param dest - the matrix to be set
+     * @return - dest
+     */
+    public static Matrix4f view(Vector3f position, Vector3f rotation, Matrix4f dest) {
+        Matrix4f[] temp = scratch.get();
+        Matrix4f result = temp[0], component = temp[1];
 
         // create full rotation matrix
-        Matrix4f rotXMatrix = Matrix4f.rotate(rotation.getX(), new Vector3f(1, 0, 0));
-        Matrix4f rotYMatrix = Matrix4f.rotate(rotation.getY(), new Vector3f(0, 1, 0));
-        Matrix4f rotZMatrix = Matrix4f.rotate(rotation.getZ(), new Vector3f(0, 0, 1));
-        Matrix4f rotationMatrix = Matrix4f.multiply(rotZMatrix, Matrix4f.multiply(rotYMatrix, rotXMatrix));
+        rotate(rotation.getY(), Y_AXIS, result);
+        mulInto(result, rotate(rotation.getX(), X_AXIS, component), result);
+        mulInto(rotate(rotation.getZ(), Z_AXIS, component), result, result);
 
-        // compile matrices together
-        return Matrix4f.multiply(translationMatrix, rotationMatrix);
+        // compile the negative translation and rotation matrices together
+        translate(-position.getX(), -position.getY(), -position.getZ(), component);
+        return mulInto(component, result, dest);
     }
 
     /**
      * multiplies two matrices together
      * @param matrix - matrix 1
      * @param other - matrix 2
-     * @return - a new Matrix, A x B
+     * @return - a new Matrix, other x matrix
      */
     public static Matrix4f multiply(Matrix4f matrix, Matrix4f other) {
-        Matrix4f result = Matrix4f.identity();
+        return mulInto(matrix, other, new Matrix4f());
+    }
 
-        for (int i = 0; i < SIZE; i++) {
-            for (int j = 0; j < SIZE; j++) {
-                result.set(i, j, matrix.get(i, 0) * other.get(0, j) +
-                        matrix.get(i, 1) * other.get(1, j) +
-                        matrix.get(i, 2) * other.get(2, j) +
-                        matrix.get(i, 3) * other.get(3, j));
-            }
+    /**
+     * multiplies two matrices together into a destination matrix - dest may be the same object as either input
+     * @param matrix - matrix 1
+     * @param other - matrix 2
+     * @param dest - the matrix to store the result in
+     * @return - dest, other x matrix
+     */
+    public static Matrix4f mulInto(Matrix4f matrix, Matrix4f other, Matrix4f dest) {
+        // copy matrix 1 so that writing to dest can not change it
+        float[] m = matrix.elements;
+        float m00 = m[0],  m01 = m[1],  m02 = m[2],  m03 = m[3];
+        float m10 = m[4],  m11 = m[5],  m12 = m[6],  m13 = m[7];
+        float m20 = m[8],  m21 = m[9],  m22 = m[10], m23 = m[11];
+        float m30 = m[12], m31 = m[13], m32 = m[14], m33 = m[15];
+
+        // each row of the result only depends on the same row of matrix 2
+        float[] o = other.elements;
+        float[] d = dest.elements;
+        for (int j = 0; j < SIZE; j++) {
+            float o0 = o[j * SIZE], o1 = o[j * SIZE + 1], o2 = o[j * SIZE + 2], o3 = o[j * SIZE + 3];
+            d[j * SIZE    ] = m00 * o0 + m10 * o1 + m20 * o2 + m30 * o3;
+            d[j * SIZE + 1] = m01 * o0 + m11 * o1 + m21 * o2 + m31 * o3;
+            d[j * SIZE + 2] = m02 * o0 + m12 * o1 + m22 * o2 + m32 * o3;
+            d[j * SIZE + 3] = m03 * o0 + m13 * o1 + m23 * o2 + m33 * o3;
         }
 
-        return result;
+        return dest;
+    }
+
+    /**
+     * copies the values of another matrix into this matrix
+     * @param other - the matrix to copy
+     * @return - this matrix
+     */
+    public Matrix4f set(Matrix4f other) {
+        System.arraycopy(other.elements, 0, this.elements, 0, SIZE * SIZE);
+        return this;
     }
 
     /**
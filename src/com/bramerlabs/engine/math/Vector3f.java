@@ -75,6 +75,18 @@ public class Vector3f {
         this.z = z;
     }
 
+    /**
+     * copies the components of another vector into this vector
+     * @param v - the other vector
+     * @return - this vector
+     */
+    public Vector3f set(Vector3f v) {
+        this.x = v.x;
+        this.y = v.y;
+        this.z = v.z;
+        return this;
+    }
+
     /**
      * sets a specific component of this vector
      * @param c - which component to set
@@ -138,6 +150,18 @@ public class Vector3f {
         return new Vector3f(v.x + u.x, v.y + u.y, v.z + u.z);
     }
 
+    /**
+     * adds two vectors together into a destination vector - dest may be the same object as either input
+     * @param u - vector 1
+     * @param v - vector 2
+     * @param dest - the vector to store the result in
+     * @return - dest, u + v
+     */
+    public static Vector3f add(Vector3f u, Vector3f v, Vector3f dest) {
+        dest.set(u.x + v.x, u.y + v.y, u.z + v.z);
+        return dest;
+    }
+
     /**
      * subtracts two vectors
      * @param u - vector 1
@@ -148,6 +172,18 @@ public class Vector3f {
         return new Vector3f(u.x - v.x, u.y - v.y, u.z - v.z);
     }
 
+    /**
+     * subtracts two vectors into a destination vector - dest may be the same object as either input
+     * @param u - vector 1
+     * @param v - vector 2
+     * @param dest - the vector to store the result in
+     * @return - dest, u - v
+     */
+    public static Vector3f subtract(Vector3f u, Vector3f v, Vector3f dest) {
+        dest.set(u.x - v.x, u.y - v.y, u.z - v.z);
+        return dest;
+    }
+
     /**
      * element-wise multiplication of two vectors
      * @param vector1 - vector 1
@@ -168,6 +204,18 @@ public class Vector3f {
         return new Vector3f(vector1.getX() * scaleFactor, vector1.getY() * scaleFactor, vector1.getZ() * scaleFactor);
     }
 
+    /**
+     * scales a vector into a destination vector - dest may be the same object as the input
+     * @param v - the vector
+     * @param scaleFactor - the scale factor
+     * @param dest - the vector to store the result in
+     * @return - dest, the scalar multiplication of the vector and float
+     */
+    public static Vector3f scale(Vector3f v, float scaleFactor, Vector3f dest) {
+        dest.set(v.x * scaleFactor, v.y * scaleFactor, v.z * scaleFactor);
+        return dest;
+    }
+
     /**
      * element-wise division of two vectors
      * @param vector1 - vector 1
@@ -206,6 +254,18 @@ public class Vector3f {
         return Vector3f.divide(v, new Vector3f(length(v)));
     }
 
+    /**
+     * normalizes a vector into a destination vector - dest may be the same object as the input
+     * @param v - the vector
+     * @param dest - the vector to store the result in
+     * @return - dest, the vector as a normal vector
+     */
+    public static Vector3f normalize(Vector3f v, Vector3f dest) {
+        float length = length(v);
+        dest.set(v.x / length, v.y / length, v.z / length);
+        return dest;
+    }
+
     /**
      * normalizes a vector to a specific length
      * @param v - the vector
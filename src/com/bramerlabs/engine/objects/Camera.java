@@ -51,14 +51,14 @@ public class Camera {
         float z = (float)Math.cos(Math.toRadians(rotation.getY())) * moveSpeed;
 
         // handle the WASD keys
-        if (input.isKeyDown(GLFW.GLFW_KEY_A)) position = Vector3f.add(position, new Vector3f(-z, 0,  x));
-        if (input.isKeyDown(GLFW.GLFW_KEY_D)) position = Vector3f.add(position, new Vector3f( z, 0, -x));
-        if (input.isKeyDown(GLFW.GLFW_KEY_W)) position = Vector3f.add(position, new Vector3f(-x, 0, -z));
-        if (input.isKeyDown(GLFW.GLFW_KEY_S)) position = Vector3f.add(position, new Vector3f( x, 0,  z));
+        if (input.isKeyDown(GLFW.GLFW_KEY_A)) position.add(-z, 0,  x);
+        if (input.isKeyDown(GLFW.GLFW_KEY_D)) position.add( z, 0, -x);
+        if (input.isKeyDown(GLFW.GLFW_KEY_W)) position.add(-x, 0, -z);
+        if (input.isKeyDown(GLFW.GLFW_KEY_S)) position.add( x, 0,  z);
 
         // handle going up and down
-        if (input.isKeyDown(GLFW.GLFW_KEY_SPACE)) position = Vector3f.add(position, new Vector3f(0, moveSpeed, 0));
-        if (input.isKeyDown(GLFW.GLFW_KEY_LEFT_SHIFT)) position = Vector3f.add(position, new Vector3f(0, -moveSpeed, 0));
+        if (input.isKeyDown(GLFW.GLFW_KEY_SPACE)) position.add(0, moveSpeed, 0);
+        if (input.isKeyDown(GLFW.GLFW_KEY_LEFT_SHIFT)) position.add(0, -moveSpeed, 0);
 
         // handle mouse motion
         float dx = (float) (newMouseX - oldMouseX);
@@ -68,7 +68,7 @@ public class Camera {
         oldMouseY = newMouseY;
 
         // rotate according to the mouse motion
-        rotation = Vector3f.add(rotation, new Vector3f(-dy * mouseSensitivity, -dx * mouseSensitivity, 0)); //dx, dy must be flipped and inverted
+        rotation.add(-dy * mouseSensitivity, -dx * mouseSensitivity, 0); //dx, dy must be flipped and inverted
     }
 
     /**
@@ -76,6 +76,15 @@ public class Camera {
      * @param object - the object the arcball camera is orbiting
      */
     public void update(GameObject object) {
+        rotate();
+        follow(object);
+    }
+
+    /**
+     * turns and zooms the arcball camera by the mouse and scroll wheel motion since the last call - call once per
+     * simulation tick, so the direction the player walks in does not depend on the frame rate
+     */
+    public void rotate() {
         // get the new x and y components of the mouse position
         newMouseX = input.getMouseX();
         newMouseY = input.getMouseY();
@@ -109,7 +118,13 @@ public class Camera {
         } else {
             distance = 0.1f;
         }
+    }
 
+    /**
+     * moves the arcball camera to orbit an object at its current angles and distance
+     * @param object - the object the arcball camera is orbiting
+     */
+    public void follow(GameObject object) {
         // get the vertical and horizontal distances
         this.horizontalDistance = (float) (distance * Math.cos(Math.toRadians(verticalAngle))); // using formula h = r*cos(theta_x)
         this.verticalDistance = (float) (distance * Math.sin(Math.toRadians(verticalAngle))); // using formula v = r*sin(theta_x)
@@ -117,10 +132,11 @@ public class Camera {
         float xOffset = (float) (horizontalDistance * Math.sin(Math.toRadians(-horizontalAngle)));
         float zOffset = (float) (horizontalDistance * Math.cos(Math.toRadians(-horizontalAngle)));
 
-        // set the new camera position based on the object
-        this.position.set(object.getPosition().getX() + xOffset,
-                object.getPosition().getY() - verticalDistance,
-                object.getPosition().getZ() + zOffset);
+        // set the new camera position based on where the object is drawn
+        Vector3f target = object.getRenderPosition();
+        this.position.set(target.getX() + xOffset,
+                target.getY() - verticalDistance,
+                target.getZ() + zOffset);
 
         // set the new camera rotation based on the object
         this.rotation.set(verticalAngle, -horizontalAngle, 0);
@@ -0,0 +1,21 @@
+package com.bramerlabs.engine.objects;
+
+public interface CollisionWorld {
+
+    /**
+     * checks if anything solid in the world intersects a box
+     * @param box - the box
+     * @return - true if the box overlaps something solid
+     */
+    boolean intersects(Hitbox box);
+
+    /**
+     * finds the earliest time a moving box touches anything solid in the world, testing each candidate once
+     * @param box - the box, at the start of the motion
+     * @param dx - the displacement along x
+     * @param dy - the displacement along y
+     * @param dz - the displacement along z
+     * @param contact - the earliest hit found so far, replaced by any earlier hit
+     */
+    void sweep(Hitbox box, float dx, float dy, float dz, Contact contact);
+}
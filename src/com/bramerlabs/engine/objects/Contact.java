@@ -0,0 +1,63 @@
+package com.bramerlabs.engine.objects;
+
+public class Contact {
+
+    // the axes a contact can be on
+    public static final int NONE = -1;
+    public static final int X_AXIS = 0;
+    public static final int Y_AXIS = 1;
+    public static final int Z_AXIS = 2;
+
+    // the fraction of the motion done before the hit, 1 if nothing was hit
+    private float time = 1;
+
+    // the axis the hit face is perpendicular to, or NONE
+    private int axis = NONE;
+
+    // the position of the hit face along its axis
+    private float face;
+
+    /**
+     * clears the contact before a new sweep
+     */
+    public void reset() {
+        time = 1;
+        axis = NONE;
+    }
+
+    /**
+     * records a hit - only called with hits earlier than the current one
+     * @param time - the fraction of the motion done before the hit
+     * @param axis - the axis the hit face is perpendicular to
+     * @param face - the position of the hit face along its axis
+     */
+    void set(float time, int axis, float face) {
+        this.time = time;
+        this.axis = axis;
+        this.face = face;
+    }
+
+    /**
+     * getter method
+     * @return - the fraction of the motion done before the hit, 1 if nothing was hit
+     */
+    public float getTime() {
+        return this.time;
+    }
+
+    /**
+     * getter method
+     * @return - the axis the hit face is perpendicular to, or NONE
+     */
+    public int getAxis() {
+        return this.axis;
+    }
+
+    /**
+     * getter method
+     * @return - the position of the hit face along its axis
+     */
+    public float getFace() {
+        return this.face;
+    }
+}
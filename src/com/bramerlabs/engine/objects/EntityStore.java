@@ -0,0 +1,522 @@
+package com.bramerlabs.engine.objects;
+
+import com.bramerlabs.engine.graphics.Frustum;
+import com.bramerlabs.engine.graphics.Mesh;
+import com.bramerlabs.engine.math.Vector3f;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class EntityStore implements CollisionWorld {
+
+    // the number of low bits of a handle holding the slot - the high bits count how often the slot has been reused
+    private static final int SLOT_BITS = 24;
+    private static final int SLOT_MASK = (1 << SLOT_BITS) - 1;
+    private static final int GENERATION_MASK = (1 << (Integer.SIZE - SLOT_BITS)) - 1;
+
+    // the number of entities the columns hold before they grow
+    private static final int INITIAL_CAPACITY = 256;
+
+    // the number of entities - they are stored densely in the first rows of every column
+    private int size;
+
+    // the position, rotation and scale of each entity, three floats per entity
+    private float[] positions = new float[INITIAL_CAPACITY * 3];
+    private float[] rotations = new float[INITIAL_CAPACITY * 3];
+    private float[] scales = new float[INITIAL_CAPACITY * 3];
+
+    // the hitbox of each entity, one column per hitbox value constant, so a box is tested against every row in one vectorized pass
+    private float[][] boxes = new float[Hitbox.NUM_VAL][INITIAL_CAPACITY];
+
+    // the hitbox flags of each entity - the sides other boxes are ignored on
+    private int[] flags = new int[INITIAL_CAPACITY];
+
+    // the mesh id of each entity
+    private int[] meshIds = new int[INITIAL_CAPACITY];
+
+    // the handle and facade object of each entity
+    private int[] handles = new int[INITIAL_CAPACITY];
+    private GameObject[] objects = new GameObject[INITIAL_CAPACITY];
+
+    // the row of the entity in each slot, or -1 if the slot is free, and how often each slot has been reused
+    private int[] rows = new int[INITIAL_CAPACITY];
+    private int[] generations = new int[INITIAL_CAPACITY];
+    private int slotCount;
+
+    // the slots freed by removed entities, reused before new slots
+    private int[] freeSlots = new int[INITIAL_CAPACITY];
+    private int freeCount;
+
+    // the meshes referenced by the mesh id column and the number of entities using each, ids of unused meshes are reused
+    private List<Mesh> meshes = new ArrayList<>();
+    private int[] meshUsers = new int[INITIAL_CAPACITY];
+    private Map<Mesh, Integer> meshIdsByMesh = new IdentityHashMap<>();
+    private List<Integer> freeMeshIds = new ArrayList<>();
+
+    // the query state of each thread, reused between queries - stores may be queried from several threads at once
+    private final ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(Scratch::new);
+
+    /**
+     * adds an object to the store - from now on its row of the columns holds its position, rotation, scale and hitbox,
+     * and the object reads and writes them there
+     * @param object - the object, which must not be in a store already
+     * @return - the handle of the entity, which stays valid until the entity is removed
+     */
+    public int add(GameObject object) {
+        if (object.getStore() != null) {
+            throw new IllegalArgumentException("The object is already in a store.");
+        }
+        if (size == objects.length) {
+            growRows();
+        }
+
+        int slot;
+        if (freeCount > 0) {
+            slot = freeSlots[--freeCount];
+        } else {
+            if (slotCount == rows.length) {
+                rows = Arrays.copyOf(rows, rows.length * 2);
+                generations = Arrays.copyOf(generations, generations.length * 2);
+            }
+            slot = slotCount++;
+        }
+        int handle = generations[slot] << SLOT_BITS | slot;
+        rows[slot] = size;
+        handles[size] = handle;
+        objects[size] = object;
+        meshIds[size] = meshId(object.getMesh());
+        flags[size] = Hitbox.IGNORE_FLAGS;
+        write(size, object);
+        object.attach(this, handle);
+        size++;
+        return handle;
+    }
+
+    /**
+     * removes an object from the store - the last entity is moved into its row, so rows are not stable but handles are
+     * @param object - the object
+     */
+    public void remove(GameObject object) {
+        if (object.getStore() != this) {
+            return;
+        }
+        int handle = object.getHandle();
+        int row = indexOf(handle);
+
+        // the object takes its values back before its row is reused
+        object.detach();
+        releaseMeshId(meshIds[row]);
+        int last = size - 1;
+        if (row != last) {
+            System.arraycopy(positions, last * 3, positions, row * 3, 3);
+            System.arraycopy(rotations, last * 3, rotations, row * 3, 3);
+            System.arraycopy(scales, last * 3, scales, row * 3, 3);
+            for (float[] column : boxes) {
+                column[row] = column[last];
+            }
+            meshIds[row] = meshIds[last];
+            flags[row] = flags[last];
+            handles[row] = handles[last];
+            objects[row] = objects[last];
+            rows[handles[row] & SLOT_MASK] = row;
+        }
+        objects[last] = null;
+        size--;
+
+        // reusing the slot with a new generation makes old handles to it invalid
+        int slot = handle & SLOT_MASK;
+        rows[slot] = -1;
+        generations[slot] = (generations[slot] + 1) & GENERATION_MASK;
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeSlots.length * 2);
+        }
+        freeSlots[freeCount++] = slot;
+    }
+
+    /**
+     * helper method to copy the values of an object being added into its row
+     * @param row - the row
+     * @param object - the object
+     */
+    private void write(int row, GameObject object) {
+        put(positions, row * 3, object.getPosition());
+        put(rotations, row * 3, object.getRotation());
+        put(scales, row * 3, object.getScale());
+        Hitbox box = object.getHitbox();
+        boxes[Hitbox.X_MIN][row] = box.xMin;
+        boxes[Hitbox.X_MAX][row] = box.xMax;
+        boxes[Hitbox.Y_MIN][row] = box.yMin;
+        boxes[Hitbox.Y_MAX][row] = box.yMax;
+        boxes[Hitbox.Z_MIN][row] = box.zMin;
+        boxes[Hitbox.Z_MAX][row] = box.zMax;
+    }
+
+    /**
+     * helper method to copy a vector into a column
+     * @param column - the column
+     * @param offset - the offset of the vector in the column
+     * @param v - the vector
+     */
+    private static void put(float[] column, int offset, Vector3f v) {
+        column[offset] = v.getX();
+        column[offset + 1] = v.getY();
+        column[offset + 2] = v.getZ();
+    }
+
+    /**
+     * helper method to copy a vector out of a column
+     * @param column - the column
+     * @param offset - the offset of the vector in the column
+     * @param dest - the vector the values are written to
+     * @return - dest
+     */
+    private static Vector3f get(float[] column, int offset, Vector3f dest) {
+        dest.set(column[offset], column[offset + 1], column[offset + 2]);
+        return dest;
+    }
+
+    /**
+     * copies the position of an entity out of its row
+     * @param handle - the handle of the entity
+     * @param dest - the vector the position is written to
+     * @return - dest
+     */
+    public Vector3f getPosition(int handle, Vector3f dest) {
+        return get(positions, indexOf(handle) * 3, dest);
+    }
+
+    /**
+     * moves an entity, and its hitbox with it - the hitbox is centered on the position and sized by the scale
+     * @param handle - the handle of the entity
+     * @param x - the x position
+     * @param y - the y position
+     * @param z - the z position
+     */
+    public void setPosition(int handle, float x, float y, float z) {
+        int row = indexOf(handle);
+        int p = row * 3;
+        positions[p] = x;
+        positions[p + 1] = y;
+        positions[p + 2] = z;
+        float halfX = scales[p] * 0.5f, halfY = scales[p + 1] * 0.5f, halfZ = scales[p + 2] * 0.5f;
+        boxes[Hitbox.X_MIN][row] = x - halfX;
+        boxes[Hitbox.X_MAX][row] = x + halfX;
+        boxes[Hitbox.Y_MIN][row] = y - halfY;
+        boxes[Hitbox.Y_MAX][row] = y + halfY;
+        boxes[Hitbox.Z_MIN][row] = z - halfZ;
+        boxes[Hitbox.Z_MAX][row] = z + halfZ;
+    }
+
+    /**
+     * copies the rotation of an entity out of its row
+     * @param handle - the handle of the entity
+     * @param dest - the vector the rotation is written to
+     * @return - dest
+     */
+    public Vector3f getRotation(int handle, Vector3f dest) {
+        return get(rotations, indexOf(handle) * 3, dest);
+    }
+
+    /**
+     * sets the rotation of an entity
+     * @param handle - the handle of the entity
+     * @param rotation - the rotation
+     */
+    public void setRotation(int handle, Vector3f rotation) {
+        put(rotations, indexOf(handle) * 3, rotation);
+    }
+
+    /**
+     * copies the scale of an entity out of its row
+     * @param handle - the handle of the entity
+     * @param dest - the vector the scale is written to
+     * @return - dest
+     */
+    public Vector3f getScale(int handle, Vector3f dest) {
+        return get(scales, indexOf(handle) * 3, dest);
+    }
+
+    /**
+     * sets the scale of an entity - the hitbox keeps its size until the entity is moved
+     * @param handle - the handle of the entity
+     * @param scale - the scale
+     */
+    public void setScale(int handle, Vector3f scale) {
+        put(scales, indexOf(handle) * 3, scale);
+    }
+
+    /**
+     * copies the hitbox of an entity out of its row
+     * @param handle - the handle of the entity
+     * @param dest - the hitbox the values are written to
+     * @return - dest
+     */
+    public Hitbox getHitbox(int handle, Hitbox dest) {
+        int row = indexOf(handle);
+        dest.setValues(boxes[Hitbox.X_MIN][row], boxes[Hitbox.X_MAX][row], boxes[Hitbox.Y_MIN][row], boxes[Hitbox.Y_MAX][row],
+                boxes[Hitbox.Z_MIN][row], boxes[Hitbox.Z_MAX][row]);
+        return dest;
+    }
+
+    /**
+     * helper method to double the number of rows of every column
+     */
+    private void growRows() {
+        int capacity = objects.length * 2;
+        positions = Arrays.copyOf(positions, capacity * 3);
+        rotations = Arrays.copyOf(rotations, capacity * 3);
+        scales = Arrays.copyOf(scales, capacity * 3);
+        for (int v = 0; v < Hitbox.NUM_VAL; v++) {
+            boxes[v] = Arrays.copyOf(boxes[v], capacity);
+        }
+        meshIds = Arrays.copyOf(meshIds, capacity);
+        flags = Arrays.copyOf(flags, capacity);
+        handles = Arrays.copyOf(handles, capacity);
+        objects = Arrays.copyOf(objects, capacity);
+    }
+
+    /**
+     * helper method to find or assign the id of a mesh
+     * @param mesh - the mesh
+     * @return - the id of the mesh
+     */
+    private int meshId(Mesh mesh) {
+        Integer id = meshIdsByMesh.get(mesh);
+        if (id == null) {
+            if (freeMeshIds.isEmpty()) {
+                id = meshes.size();
+                meshes.add(mesh);
+                if (id == meshUsers.length) {
+                    meshUsers = Arrays.copyOf(meshUsers, meshUsers.length * 2);
+                }
+            } else {
+                id = freeMeshIds.remove(freeMeshIds.size() - 1);
+                meshes.set(id, mesh);
+            }
+            meshIdsByMesh.put(mesh, id);
+        }
+        meshUsers[id]++;
+        return id;
+    }
+
+    /**
+     * helper method to release the id of a mesh once no entity uses it
+     * @param id - the id of the mesh
+     */
+    private void releaseMeshId(int id) {
+        if (--meshUsers[id] == 0) {
+            meshIdsByMesh.remove(meshes.get(id));
+            meshes.set(id, null);
+            freeMeshIds.add(id);
+        }
+    }
+
+    /**
+     * sets the hitbox flags of an entity, such as the sides a one-way platform lets other boxes through
+     * @param handle - the handle of the entity
+     * @param flags - the hitbox flags, combined using bitwise or
+     */
+    public void setFlags(int handle, int flags) {
+        int row = indexOf(handle);
+        if (row >= 0) {
+            this.flags[row] = flags;
+        }
+    }
+
+    /**
+     * finds the row of an entity
+     * @param handle - the handle of the entity
+     * @return - the row of the entity, or -1 if the entity has been removed
+     */
+    public int indexOf(int handle) {
+        int slot = handle & SLOT_MASK;
+        if (slot >= slotCount || generations[slot] != handle >>> SLOT_BITS) {
+            return -1;
+        }
+        return rows[slot];
+    }
+
+    /**
+     * checks if any entity's hitbox intersects a box, with one batched test of the hitbox columns
+     * @param box - the box
+     * @return - true if the box overlaps an entity
+     */
+    @Override
+    public boolean intersects(Hitbox box) {
+        return query(box, scratch.get().hits(size)) > 0;
+    }
+
+    @Override
+    public void sweep(Hitbox box, float dx, float dy, float dz, Contact contact) {
+        for (int row = 0; row < size; row++) {
+            box.sweep(dx, dy, dz, boxes, row, flags[row], contact);
+        }
+    }
+
+    /**
+     * finds the entities whose hitboxes intersect a box
+     * @param box - the box
+     * @param result - the array the rows of the entities found are written to
+     * @return - the number of entities found, at most the length of the result array
+     */
+    public int query(Hitbox box, int[] result) {
+        long[] hits = scratch.get().hits(size);
+        query(box, hits);
+        int found = 0;
+        for (int word = 0; word < (size + 63) >>> 6; word++) {
+            for (long bits = hits[word]; bits != 0 && found < result.length; bits &= bits - 1) {
+                result[found++] = word << 6 | Long.numberOfTrailingZeros(bits);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * finds the entities whose hitboxes intersect a box, as a bitset over the rows
+     * @param box - the box
+     * @param hits - the bitset the result is written to, bit i set if the entity in row i is intersected - must hold at least (size + 63) / 64 words
+     * @return - the number of entities found
+     */
+    public int query(Hitbox box, long[] hits) {
+        return box.intersects(boxes, flags, size, scratch.get().overlaps(size), hits);
+    }
+
+    /**
+     * finds the entities whose hitboxes are at least partly inside a frustum
+     * @param frustum - the frustum
+     * @param result - the array the rows of the visible entities are written to, at least as long as the store
+     * @return - the number of visible entities
+     */
+    public int cull(Frustum frustum, int[] result) {
+        int visible = 0;
+        for (int row = 0; row < size; row++) {
+            if (frustum.intersects(boxes, row)) {
+                result[visible++] = row;
+            }
+        }
+        return visible;
+    }
+
+    /**
+     * getter method
+     * @return - the number of entities
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * getter method - the column is replaced when the store grows, and is only valid for the first size() entities
+     * @return - the positions of the entities, three floats per row
+     */
+    public float[] getPositions() {
+        return this.positions;
+    }
+
+    /**
+     * getter method - the column is replaced when the store grows, and is only valid for the first size() entities
+     * @return - the rotations of the entities, three floats per row
+     */
+    public float[] getRotations() {
+        return this.rotations;
+    }
+
+    /**
+     * getter method - the column is replaced when the store grows, and is only valid for the first size() entities
+     * @return - the scales of the entities, three floats per row
+     */
+    public float[] getScales() {
+        return this.scales;
+    }
+
+    /**
+     * getter method - the columns are replaced when the store grows, and are only valid for the first size() entities
+     * @return - the hitboxes of the entities, one column per hitbox value constant
+     */
+    public float[][] getBoxes() {
+        return this.boxes;
+    }
+
+    /**
+     * getter method - the column is replaced when the store grows, and is only valid for the first size() entities
+     * @return - the hitbox flags of the entities
+     */
+    public int[] getFlags() {
+        return this.flags;
+    }
+
+    /**
+     * getter method - the column is replaced when the store grows, and is only valid for the first size() entities
+     * @return - the mesh ids of the entities
+     */
+    public int[] getMeshIds() {
+        return this.meshIds;
+    }
+
+    /**
+     * getter method
+     * @param id - a mesh id
+     * @return - the mesh with the id
+     */
+    public Mesh getMesh(int id) {
+        return meshes.get(id);
+    }
+
+    /**
+     * getter method
+     * @param row - the row of an entity
+     * @return - the handle of the entity
+     */
+    public int getHandle(int row) {
+        return handles[row];
+    }
+
+    /**
+     * getter method
+     * @param row - the row of an entity
+     * @return - the object of the entity
+     */
+    public GameObject getObject(int row) {
+        return objects[row];
+    }
+
+    /**
+     * the scratch space of the queries made by one thread
+     */
+    private static class Scratch {
+
+        // the overlap of each row with the box being queried
+        private float[] overlaps = new float[INITIAL_CAPACITY];
+
+        // the rows intersected by the box being queried, as a bitset
+        private long[] hits = new long[INITIAL_CAPACITY / Long.SIZE];
+
+        /**
+         * getter method - the array grows to the number of rows asked for
+         * @param rows - the number of rows
+         * @return - scratch space for the overlap of each row
+         */
+        private float[] overlaps(int rows) {
+            if (overlaps.length < rows) {
+                overlaps = new float[Math.max(rows, overlaps.length * 2)];
+            }
+            return overlaps;
+        }
+
+        /**
+         * getter method - the array grows to the number of rows asked for
+         * @param rows - the number of rows
+         * @return - scratch space for a bitset over the rows
+         */
+        private long[] hits(int rows) {
+            int words = (rows + 63) >>> 6;
+            if (hits.length < words) {
+                hits = new long[Math.max(words, hits.length * 2)];
+            }
+            return hits;
+        }
+    }
+}
@@ -1,19 +1,44 @@
 package com.bramerlabs.engine.objects;
 
 import com.bramerlabs.engine.graphics.Mesh;
+import com.bramerlabs.engine.math.Matrix4f;
 import com.bramerlabs.engine.math.Vector3f;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class GameObject {
 
-    // object location data
+    // object location data - while this object is in a store its row holds these, and the vectors only receive copies of it
     private Vector3f position, rotation, scale;
 
     // the mesh that this object is made of
     private Mesh mesh;
 
-    // the objects hitbox
+    // the objects hitbox - held by the row of this object while it is in a store, like the location data
     private Hitbox hitbox;
 
+    // the position at the start of the current simulation tick, and the position blended for rendering
+    private Vector3f previousPosition = new Vector3f(0), renderPosition = new Vector3f(0);
+
+    // true once the render position has been interpolated between two ticks
+    private boolean interpolated = false;
+
+    // the object this one is attached to, or null, and the objects attached to this one
+    private GameObject parent;
+    private List<GameObject> children = new ArrayList<>();
+
+    // the cached model matrix, from this object to the world, and the world bounds of the mesh
+    private Matrix4f modelMatrix = new Matrix4f();
+    private Hitbox bounds = new Hitbox(0, 0, 0, 0, 0, 0);
+
+    // true if the model matrix and bounds are out of date - if an object is dirty, so are all of its children
+    private boolean dirty = true;
+
+    // the store holding this object's values in its columns and the handle of this object in it, or null and -1
+    private EntityStore store;
+    private int handle = -1;
+
     /**
      * default constructor for specified values
      * @param mesh - the mesh that this object is made of
@@ -26,6 +51,7 @@ public class GameObject {
         this.rotation = rotation;
         this.scale = scale;
         this.mesh = mesh;
+        this.previousPosition.set(position);
 
         // create a hitbox
         Vector3f min = Vector3f.subtract(position, Vector3f.scale(scale, 0.5f));
@@ -48,10 +74,13 @@ public class GameObject {
     }
 
     /**
-     * getter method
+     * getter method - for an object in a store the vector is a copy of its row, so changing it does not move the object
      * @return - the position of this object
      */
     public Vector3f getPosition() {
+        if (store != null) {
+            store.getPosition(handle, position);
+        }
         return position;
     }
 
@@ -60,19 +89,82 @@ public class GameObject {
      * @param position - the new position of this object
      */
     public void setPosition(Vector3f position) {
+        if (store != null) {
+            setPosition(position.getX(), position.getY(), position.getZ());
+            return;
+        }
         this.position = position;
+        moveHitbox();
+        invalidate();
+    }
 
-        // set the hitbox positions
-        Vector3f min = Vector3f.subtract(position, Vector3f.scale(scale, 0.5f));
-        Vector3f max = Vector3f.add(position, Vector3f.scale(scale, 0.5f));
-        hitbox.setValues(min.getX(), max.getX(), min.getY(), max.getY(), min.getZ(), max.getZ());
+    /**
+     * sets the position of this game object
+     * @param x - the new x position
+     * @param y - the new y position
+     * @param z - the new z position
+     */
+    public void setPosition(float x, float y, float z) {
+        if (store != null) {
+            store.setPosition(handle, x, y, z);
+        } else {
+            position.set(x, y, z);
+            moveHitbox();
+        }
+        invalidate();
+    }
+
+    /**
+     * helper method to center the hitbox on the position, sized by the scale
+     */
+    private void moveHitbox() {
+        float halfX = scale.getX() * 0.5f, halfY = scale.getY() * 0.5f, halfZ = scale.getZ() * 0.5f;
+        hitbox.setValues(position.getX() - halfX, position.getX() + halfX,
+                position.getY() - halfY, position.getY() + halfY,
+                position.getZ() - halfZ, position.getZ() + halfZ);
+    }
+
+    /**
+     * stores the current position as the start of the next simulation tick - call before each tick
+     */
+    public void savePreviousPosition() {
+        previousPosition.set(getPosition());
+    }
+
+    /**
+     * blends the position of the previous and current simulation tick for rendering
+     * @param alpha - how far rendering is between the previous and current tick, from 0 to 1
+     */
+    public void interpolate(float alpha) {
+        Vector3f position = getPosition();
+        float x = previousPosition.getX() + (position.getX() - previousPosition.getX()) * alpha;
+        float y = previousPosition.getY() + (position.getY() - previousPosition.getY()) * alpha;
+        float z = previousPosition.getZ() + (position.getZ() - previousPosition.getZ()) * alpha;
+
+        // an object resting between ticks keeps its cached matrix
+        if (!interpolated || x != renderPosition.getX() || y != renderPosition.getY() || z != renderPosition.getZ()) {
+            renderPosition.set(x, y, z);
+            interpolated = true;
+            invalidate();
+        }
     }
 
     /**
      * getter method
+     * @return - the position this object should be drawn at
+     */
+    public Vector3f getRenderPosition() {
+        return interpolated ? renderPosition : getPosition();
+    }
+
+    /**
+     * getter method - for an object in a store the vector is a copy of its row, so changing it does not turn the object
      * @return - the rotation of this object
      */
     public Vector3f getRotation() {
+        if (store != null) {
+            store.getRotation(handle, rotation);
+        }
         return rotation;
     }
 
@@ -81,14 +173,22 @@ public class GameObject {
      * @param rotation - the new rotation
      */
     public void setRotation(Vector3f rotation) {
-        this.rotation = rotation;
+        if (store != null) {
+            store.setRotation(handle, rotation);
+        } else {
+            this.rotation = rotation;
+        }
+        invalidate();
     }
 
     /**
-     * getter method
+     * getter method - for an object in a store the vector is a copy of its row, so changing it does not resize the object
      * @return - the scale of this object
      */
     public Vector3f getScale() {
+        if (store != null) {
+            store.getScale(handle, scale);
+        }
         return scale;
     }
 
@@ -97,7 +197,161 @@ public class GameObject {
      * @param scale - the new scale
      */
     public void setScale(Vector3f scale) {
-        this.scale = scale;
+        if (store != null) {
+            store.setScale(handle, scale);
+        } else {
+            this.scale = scale;
+        }
+        invalidate();
+    }
+
+    /**
+     * attaches an object to this one, so it follows this object - its position, rotation and scale become relative to this object
+     * @param child - the object to attach, detached from its old parent first
+     */
+    public void addChild(GameObject child) {
+        if (child.parent != null) {
+            child.parent.removeChild(child);
+        }
+        child.parent = this;
+        children.add(child);
+        child.invalidate();
+    }
+
+    /**
+     * detaches an object from this one - its position, rotation and scale become relative to the world again
+     * @param child - the object to detach
+     */
+    public void removeChild(GameObject child) {
+        if (children.remove(child)) {
+            child.parent = null;
+            child.invalidate();
+        }
+    }
+
+    /**
+     * getter method
+     * @return - the object this one is attached to, or null
+     */
+    public GameObject getParent() {
+        return this.parent;
+    }
+
+    /**
+     * getter method
+     * @return - the objects attached to this one
+     */
+    public List<GameObject> getChildren() {
+        return this.children;
+    }
+
+    /**
+     * marks the model matrix and bounds of this object and every object attached to it as out of date
+     * must be called after changing the vectors returned by getPosition, getRotation or getScale, or the hitbox, in place -
+     * which only changes an object that is not in a store, the values of an object in a store are changed with the setters
+     */
+    public void markDirty() {
+        invalidate();
+    }
+
+    /**
+     * helper method to mark the model matrix and bounds of this object and every object attached to it as out of date
+     */
+    private void invalidate() {
+        // the children of a dirty object are already dirty
+        if (dirty) {
+            return;
+        }
+        dirty = true;
+        for (int i = 0; i < children.size(); i++) {
+            children.get(i).invalidate();
+        }
+    }
+
+    /**
+     * called by a store when this object is added to it
+     * @param store - the store
+     * @param handle - the handle of this object in the store
+     */
+    void attach(EntityStore store, int handle) {
+        this.store = store;
+        this.handle = handle;
+    }
+
+    /**
+     * called by the store of this object when this object is removed from it, before its row is reused
+     */
+    void detach() {
+        // take the values back from the row, so the object keeps them outside the store
+        getPosition();
+        getRotation();
+        getScale();
+        getHitbox();
+        this.store = null;
+        this.handle = -1;
+    }
+
+    /**
+     * getter method
+     * @return - the store holding this object, or null
+     */
+    public EntityStore getStore() {
+        return this.store;
+    }
+
+    /**
+     * getter method
+     * @return - the handle of this object in its store, or -1
+     */
+    public int getHandle() {
+        return this.handle;
+    }
+
+    /**
+     * helper method to recompute the model matrix and bounds, after the parent's
+     */
+    private void update() {
+        Matrix4f.transform(getRenderPosition(), getRotation(), getScale(), modelMatrix);
+        if (parent != null) {
+            // the parent transform is applied after this object's own
+            Matrix4f.mulInto(modelMatrix, parent.getModelMatrix(), modelMatrix);
+        }
+
+        // the box around the transformed mesh bounds, from their center and half size
+        Hitbox local = mesh.getBounds();
+        float cx = (local.xMin + local.xMax) * 0.5f, cy = (local.yMin + local.yMax) * 0.5f, cz = (local.zMin + local.zMax) * 0.5f;
+        float ex = (local.xMax - local.xMin) * 0.5f, ey = (local.yMax - local.yMin) * 0.5f, ez = (local.zMax - local.zMin) * 0.5f;
+        float[] m = modelMatrix.getAll();
+        float wx = m[0] * cx + m[1] * cy + m[2] * cz + m[3];
+        float wy = m[4] * cx + m[5] * cy + m[6] * cz + m[7];
+        float wz = m[8] * cx + m[9] * cy + m[10] * cz + m[11];
+        float hx = Math.abs(m[0]) * ex + Math.abs(m[1]) * ey + Math.abs(m[2]) * ez;
+        float hy = Math.abs(m[4]) * ex + Math.abs(m[5]) * ey + Math.abs(m[6]) * ez;
+        float hz = Math.abs(m[8]) * ex + Math.abs(m[9]) * ey + Math.abs(m[10]) * ez;
+        bounds.setValues(wx - hx, wx + hx, wy - hy, wy + hy, wz - hz, wz + hz);
+        dirty = false;
+    }
+
+    /**
+     * getter method - only recomputed after the object or one of its parents has moved
+     * @return - the matrix from this object to the world, at the render position
+     */
+    public Matrix4f getModelMatrix() {
+        if (dirty) {
+            update();
+        }
+        return this.modelMatrix;
+    }
+
+    /**
+     * getter method - only recomputed after the object or one of its parents has moved
+     * @return - the box around the mesh in the world, at the render position, used for culling
+     */
+    public Hitbox getBounds() {
+        if (dirty) {
+            update();
+        }
+        return this.bounds;
     }
 
     /**
@@ -109,10 +363,13 @@ public class GameObject {
     }
 
     /**
-     * getter method
+     * getter method - for an object in a store the hitbox is a copy of its row, so changing it does not move the hitbox
      * @return - the hitbox of this game object
      */
     public Hitbox getHitbox() {
+        if (store != null) {
+            store.getHitbox(handle, hitbox);
+        }
         return this.hitbox;
     }
 }
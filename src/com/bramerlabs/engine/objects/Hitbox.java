@@ -6,6 +6,8 @@ public class Hitbox {
     public float xMin, xMax, yMin, yMax, zMin, zMax;
 
     // hitbox flags - use multiple using bitwise or: IGNORE_X_DIRECTION | IGNORE_Y_DIRECTION
+    // a flagged box ignores boxes touching it from the flagged sides, the side being the one the other box's center is on
+    // along the axis the boxes overlap least - a one-way platform is IGNORE_X_DIRECTION | IGNORE_Y_DIRECTION_NEGATIVE | IGNORE_Z_DIRECTION
     public static final int IGNORE_FLAGS = 0;
     public static final int IGNORE_X_DIRECTION = 2;
     public static final int IGNORE_Y_DIRECTION = 4;
@@ -26,6 +28,17 @@ public class Hitbox {
     public static final int Z_MAX = 5;
     public static final int NUM_VAL = 6;
 
+    // the flags that ignore a touch from each side
+    private static final int X_POSITIVE = IGNORE_X_DIRECTION | IGNORE_X_DIRECTION_POSITIVE;
+    private static final int X_NEGATIVE = IGNORE_X_DIRECTION | IGNORE_X_DIRECTION_NEGATIVE;
+    private static final int Y_POSITIVE = IGNORE_Y_DIRECTION | IGNORE_Y_DIRECTION_POSITIVE;
+    private static final int Y_NEGATIVE = IGNORE_Y_DIRECTION | IGNORE_Y_DIRECTION_NEGATIVE;
+    private static final int Z_POSITIVE = IGNORE_Z_DIRECTION | IGNORE_Z_DIRECTION_POSITIVE;
+    private static final int Z_NEGATIVE = IGNORE_Z_DIRECTION | IGNORE_Z_DIRECTION_NEGATIVE;
+
+    // how deep two boxes may already overlap and still count as touching in a sweep, to absorb rounding
+    private static final float SKIN = 1e-4f;
+
     /**
      * default constructor for specified maxima corners
      * @param xMin - the minimum x value of this hitbox
@@ -74,17 +87,220 @@ public class Hitbox {
     }
 
     /**
-     * unfinished method - deprecated for now
+     * checks if two hitboxes are intersecting, ignoring the other hitbox if it touches this one from a flagged side
      * @param other - the other hitbox
-     * @param flags - flags regarding hitbox detection
+     * @param flags - the sides of this hitbox that are ignored
      * @return - true if the two hitboxes intersect
      */
     public boolean intersects(Hitbox other, int flags) {
+        return intersects(other.xMin, other.xMax, other.yMin, other.yMax, other.zMin, other.zMax,
+                xMin, xMax, yMin, yMax, zMin, zMax, flags);
+    }
+
+    /**
+     * checks if this hitbox intersects a box stored in columns, ignoring it if this hitbox touches it from a flagged side
+     * @param boxes - the columns, one per hitbox value constant, each holding that value of every box
+     * @param row - the row of the other box in the columns
+     * @param flags - the sides of the other box that are ignored
+     * @return - true if the two boxes intersect
+     */
+    public boolean intersects(float[][] boxes, int row, int flags) {
+        return intersects(xMin, xMax, yMin, yMax, zMin, zMax, boxes[X_MIN][row], boxes[X_MAX][row],
+                boxes[Y_MIN][row], boxes[Y_MAX][row], boxes[Z_MIN][row], boxes[Z_MAX][row], flags);
+    }
+
+    /**
+     * checks this hitbox against every box stored in columns at once, packing the results into a bitset, sixty-four boxes per word
+     * the overlap of every box is found first in loops without branches, which the JIT compiler vectorizes since each value
+     * is read from its own column, and only the overlapping boxes are then checked one by one for their flags
+     * @param boxes - the columns, one per hitbox value constant, each holding that value of every box
+     * @param flags - the sides of each box that are ignored
+     * @param count - the number of boxes to check
+     * @param overlaps - scratch space for the overlap of each box, holding at least count floats
+     * @param hits - the bitset the result is written to, bit i set if box i is intersected - must hold at least (count + 63) / 64 words
+     * @return - the number of boxes intersected
+     */
+    public int intersects(float[][] boxes, int[] flags, int count, float[] overlaps, long[] hits) {
+        float xMin = this.xMin, xMax = this.xMax, yMin = this.yMin, yMax = this.yMax, zMin = this.zMin, zMax = this.zMax;
+        float[] xMins = boxes[X_MIN], xMaxs = boxes[X_MAX], yMins = boxes[Y_MIN], yMaxs = boxes[Y_MAX], zMins = boxes[Z_MIN], zMaxs = boxes[Z_MAX];
+
+        // two boxes overlap if all six distances between their faces are positive, that is if the smallest one is -
+        // the difference of two finite floats is only zero when they are equal, so this matches the comparisons exactly
+        // each axis has a loop of its own, since a loop over all six columns is too large for the JIT compiler to unroll and vectorize
+        for (int i = 0; i < count; i++) {
+            overlaps[i] = Math.min(xMax - xMins[i], xMaxs[i] - xMin);
+        }
+        for (int i = 0; i < count; i++) {
+            overlaps[i] = Math.min(overlaps[i], Math.min(yMax - yMins[i], yMaxs[i] - yMin));
+        }
+        for (int i = 0; i < count; i++) {
+            overlaps[i] = Math.min(overlaps[i], Math.min(zMax - zMins[i], zMaxs[i] - zMin));
+        }
+
+        int found = 0;
+        for (int start = 0; start < count; start += Long.SIZE) {
+            long bits = 0;
+            int end = Math.min(count, start + Long.SIZE);
+            for (int i = start; i < end; i++) {
+                if (overlaps[i] > 0 && (flags[i] == IGNORE_FLAGS || intersects(xMin, xMax, yMin, yMax, zMin, zMax,
+                        xMins[i], xMaxs[i], yMins[i], yMaxs[i], zMins[i], zMaxs[i], flags[i]))) {
+                    bits |= 1L << (i - start);
+                }
+            }
+            hits[start >>> 6] = bits;
+            found += Long.bitCount(bits);
+        }
+        return found;
+    }
+
+    /**
+     * helper method to check if box a intersects box b, ignoring a if it touches b from a flagged side -
+     * the side is only found for boxes that overlap and are flagged, so unflagged tests cost the same as the plain test
+     * @param axMin - the lowest x of box a
+     * @param axMax - the highest x of box a
+     * @param ayMin - the lowest y of box a
+     * @param ayMax - the highest y of box a
+     * @param azMin - the lowest z of box a
+     * @param azMax - the highest z of box a
+     * @param bxMin - the lowest x of box b
+     * @param bxMax - the highest x of box b
+     * @param byMin - the lowest y of box b
+     * @param byMax - the highest y of box b
+     * @param bzMin - the lowest z of box b
+     * @param bzMax - the highest z of box b
+     * @param flags - the sides of box b that are ignored
+     * @return - true if the boxes intersect
+     */
+    private static boolean intersects(float axMin, float axMax, float ayMin, float ayMax, float azMin, float azMax,
+                                      float bxMin, float bxMax, float byMin, float byMax, float bzMin, float bzMax, int flags) {
+        if (!(axMax > bxMin && axMin < bxMax && ayMax > byMin && ayMin < byMax && azMax > bzMin && azMin < bzMax)) {
+            return false;
+        }
         if (flags == IGNORE_FLAGS) {
-            return intersects(other);
+            return true;
+        }
+
+        // the boxes touch along the axis they overlap least, on the side of b the center of a is on
+        float ox = Math.min(axMax, bxMax) - Math.max(axMin, bxMin);
+        float oy = Math.min(ayMax, byMax) - Math.max(ayMin, byMin);
+        float oz = Math.min(azMax, bzMax) - Math.max(azMin, bzMin);
+        int side;
+        if (ox <= oy && ox <= oz) {
+            side = axMin + axMax > bxMin + bxMax ? X_POSITIVE : X_NEGATIVE;
+        } else if (oy <= oz) {
+            side = ayMin + ayMax > byMin + byMax ? Y_POSITIVE : Y_NEGATIVE;
         } else {
+            side = azMin + azMax > bzMin + bzMax ? Z_POSITIVE : Z_NEGATIVE;
+        }
+        return (flags & side) == 0;
+    }
+
+    /**
+     * finds when this box, moving by a displacement, first touches another box - boxes overlapping deeper than
+     * rounding allows are ignored, so objects stuck inside each other can move apart
+     * @param dx - the displacement along x
+     * @param dy - the displacement along y
+     * @param dz - the displacement along z
+     * @param other - the other box
+     * @param contact - the earliest hit found so far, replaced if this hit is earlier
+     * @return - true if the contact was replaced
+     */
+    public boolean sweep(float dx, float dy, float dz, Hitbox other, Contact contact) {
+        return sweep(dx, dy, dz, other.xMin, other.xMax, other.yMin, other.yMax, other.zMin, other.zMax, IGNORE_FLAGS, contact);
+    }
+
+    /**
+     * finds when this box, moving by a displacement, first touches a box stored in columns
+     * @param dx - the displacement along x
+     * @param dy - the displacement along y
+     * @param dz - the displacement along z
+     * @param boxes - the columns, one per hitbox value constant, each holding that value of every box
+     * @param row - the row of the other box in the columns
+     * @param flags - the sides of the other box that are ignored
+     * @param contact - the earliest hit found so far, replaced if this hit is earlier
+     * @return - true if the contact was replaced
+     */
+    public boolean sweep(float dx, float dy, float dz, float[][] boxes, int row, int flags, Contact contact) {
+        return sweep(dx, dy, dz, boxes[X_MIN][row], boxes[X_MAX][row], boxes[Y_MIN][row],
+                boxes[Y_MAX][row], boxes[Z_MIN][row], boxes[Z_MAX][row], flags, contact);
+    }
+
+    /**
+     * finds when this box, moving by a displacement, first touches another box
+     * the box is inside the other along an axis between the time its leading face reaches the near face
+     * and the time its trailing face passes the far face - the boxes touch once they are inside along every axis,
+     * and boxes only touching along an axis they do not move on are not hit, so sliding along a surface is never stopped by it
+     * @param dx - the displacement along x
+     * @param dy - the displacement along y
+     * @param dz - the displacement along z
+     * @param oxMin - the minimum x value of the other box
+     * @param oxMax - the maximum x value of the other box
+     * @param oyMin - the minimum y value of the other box
+     * @param oyMax - the maximum y value of the other box
+     * @param ozMin - the minimum z value of the other box
+     * @param ozMax - the maximum z value of the other box
+     * @param flags - the sides of the other box that are ignored
+     * @param contact - the earliest hit found so far, replaced if this hit is earlier
+     * @return - true if the contact was replaced
+     */
+    public boolean sweep(float dx, float dy, float dz, float oxMin, float oxMax, float oyMin, float oyMax,
+                         float ozMin, float ozMax, int flags, Contact contact) {
+        float entry = Float.NEGATIVE_INFINITY, exit = Float.POSITIVE_INFINITY;
+        int axis = Contact.NONE;
+        float face = 0, speed = 0;
+        int side = 0;
+
+        if (dx != 0) {
+            float near = dx > 0 ? oxMin : oxMax;
+            float tNear = (near - (dx > 0 ? xMax : xMin)) / dx, tFar = ((dx > 0 ? oxMax : oxMin) - (dx > 0 ? xMin : xMax)) / dx;
+            if (tNear > entry) {
+                entry = tNear;
+                axis = Contact.X_AXIS;
+                face = near;
+                speed = Math.abs(dx);
+                side = dx > 0 ? X_NEGATIVE : X_POSITIVE;
+            }
+            exit = Math.min(exit, tFar);
+        } else if (xMax <= oxMin + SKIN || xMin >= oxMax - SKIN) {
+            return false;
+        }
+
+        if (dy != 0) {
+            float near = dy > 0 ? oyMin : oyMax;
+            float tNear = (near - (dy > 0 ? yMax : yMin)) / dy, tFar = ((dy > 0 ? oyMax : oyMin) - (dy > 0 ? yMin : yMax)) / dy;
+            if (tNear > entry) {
+                entry = tNear;
+                axis = Contact.Y_AXIS;
+                face = near;
+                speed = Math.abs(dy);
+                side = dy > 0 ? Y_NEGATIVE : Y_POSITIVE;
+            }
+            exit = Math.min(exit, tFar);
+        } else if (yMax <= oyMin + SKIN || yMin >= oyMax - SKIN) {
+            return false;
+        }
+
+        if (dz != 0) {
+            float near = dz > 0 ? ozMin : ozMax;
+            float tNear = (near - (dz > 0 ? zMax : zMin)) / dz, tFar = ((dz > 0 ? ozMax : ozMin) - (dz > 0 ? zMin : zMax)) / dz;
+            if (tNear > entry) {
+                entry = tNear;
+                axis = Contact.Z_AXIS;
+                face = near;
+                speed = Math.abs(dz);
+                side = dz > 0 ? Z_NEGATIVE : Z_POSITIVE;
+            }
+            exit = Math.min(exit, tFar);
+        } else if (zMax <= ozMin + SKIN || zMin >= ozMax - SKIN) {
+            return false;
+        }
+
+        // no motion, moving apart, missing, later than the known hit, overlapping too deeply to be a touch, or hitting an ignored side
+        if (axis == Contact.NONE || exit <= 0 || entry >= exit || entry >= contact.getTime() || entry * speed < -SKIN || (flags & side) != 0) {
             return false;
         }
+        contact.set(Math.max(entry, 0), axis, face);
+        return true;
     }
 
     /**
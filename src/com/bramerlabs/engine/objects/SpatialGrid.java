@@ -0,0 +1,196 @@
+package com.bramerlabs.engine.objects;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * a collision world of loose game objects, bucketed by a uniform grid - for solid objects that are not block aligned
+ * block aligned levels collide faster against a voxel world, and PlayerCollisionBenchmark compares the two
+ */
+public class SpatialGrid implements CollisionWorld {
+
+    // the number of bits used for each cell coordinate in a cell key
+    private static final int KEY_BITS = 21;
+    private static final long KEY_MASK = (1L << KEY_BITS) - 1;
+
+    // the side length of one cell
+    private float cellSize;
+
+    // the objects overlapping each cell, keyed by the packed cell coordinates
+    private Map<Long, List<GameObject>> cells = new HashMap<>();
+
+    // the number of objects in the grid
+    private int size;
+
+    // the query state of each thread, reused between queries - physics worlds query their static world from several threads at once
+    private final ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(Scratch::new);
+
+    /**
+     * default constructor for a specified cell size
+     * @param cellSize - the side length of one cell, ideally around the size of a typical object
+     */
+    public SpatialGrid(float cellSize) {
+        this.cellSize = cellSize;
+    }
+
+    /**
+     * adds an object to every cell its hitbox overlaps
+     * @param object - the object to be added
+     */
+    public void insert(GameObject object) {
+        Hitbox h = object.getHitbox();
+        int xMin = cell(h.xMin), xMax = cell(h.xMax);
+        int yMin = cell(h.yMin), yMax = cell(h.yMax);
+        int zMin = cell(h.zMin), zMax = cell(h.zMax);
+        for (int x = xMin; x <= xMax; x++) {
+            for (int y = yMin; y <= yMax; y++) {
+                for (int z = zMin; z <= zMax; z++) {
+                    cells.computeIfAbsent(key(x, y, z), k -> new ArrayList<>()).add(object);
+                }
+            }
+        }
+        size++;
+    }
+
+    /**
+     * removes an object from the grid - must be called before the object's hitbox changes
+     * @param object - the object to be removed
+     */
+    public void remove(GameObject object) {
+        Hitbox h = object.getHitbox();
+        int xMin = cell(h.xMin), xMax = cell(h.xMax);
+        int yMin = cell(h.yMin), yMax = cell(h.yMax);
+        int zMin = cell(h.zMin), zMax = cell(h.zMax);
+        boolean removed = false;
+        for (int x = xMin; x <= xMax; x++) {
+            for (int y = yMin; y <= yMax; y++) {
+                for (int z = zMin; z <= zMax; z++) {
+                    long key = key(x, y, z);
+                    List<GameObject> cell = cells.get(key);
+                    if (cell != null && cell.remove(object)) {
+                        removed = true;
+                        if (cell.isEmpty()) {
+                            cells.remove(key);
+                        }
+                    }
+                }
+            }
+        }
+        if (removed) {
+            size--;
+        }
+    }
+
+    /**
+     * finds every object in the cells overlapped by a box - the objects are candidates, and still need an exact test
+     * @param box - the box to search around
+     * @param result - the list the candidates are added to
+     */
+    public void query(Hitbox box, List<GameObject> result) {
+        Set<GameObject> visited = scratch.get().visited;
+        visited.clear();
+        int xMin = cell(box.xMin), xMax = cell(box.xMax);
+        int yMin = cell(box.yMin), yMax = cell(box.yMax);
+        int zMin = cell(box.zMin), zMax = cell(box.zMax);
+        for (int x = xMin; x <= xMax; x++) {
+            for (int y = yMin; y <= yMax; y++) {
+                for (int z = zMin; z <= zMax; z++) {
+                    List<GameObject> cell = cells.get(key(x, y, z));
+                    if (cell == null) {
+                        continue;
+                    }
+                    for (GameObject object : cell) {
+                        if (visited.add(object)) {
+                            result.add(object);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean intersects(Hitbox box) {
+        List<GameObject> candidates = scratch.get().candidates;
+        candidates.clear();
+        query(box, candidates);
+        for (GameObject object : candidates) {
+            if (box.intersects(object.getHitbox())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void sweep(Hitbox box, float dx, float dy, float dz, Contact contact) {
+        Scratch scratch = this.scratch.get();
+        Hitbox region = scratch.region;
+        List<GameObject> candidates = scratch.candidates;
+        region.setValues(Math.min(box.xMin, box.xMin + dx), Math.max(box.xMax, box.xMax + dx),
+                Math.min(box.yMin, box.yMin + dy), Math.max(box.yMax, box.yMax + dy),
+                Math.min(box.zMin, box.zMin + dz), Math.max(box.zMax, box.zMax + dz));
+        candidates.clear();
+        query(region, candidates);
+        for (GameObject object : candidates) {
+            box.sweep(dx, dy, dz, object.getHitbox(), contact);
+        }
+    }
+
+    /**
+     * helper method to find the cell coordinate of a position along one axis
+     * @param value - the position
+     * @return - the cell coordinate
+     */
+    private int cell(float value) {
+        return (int) Math.floor(value / cellSize);
+    }
+
+    /**
+     * helper method to pack three cell coordinates into one key
+     * @param x - the x cell coordinate
+     * @param y - the y cell coordinate
+     * @param z - the z cell coordinate
+     * @return - the key of the cell
+     */
+    private static long key(int x, int y, int z) {
+        return ((x & KEY_MASK) << (2 * KEY_BITS)) | ((y & KEY_MASK) << KEY_BITS) | (z & KEY_MASK);
+    }
+
+    /**
+     * getter method
+     * @return - the number of objects in the grid
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * getter method
+     * @return - the side length of one cell
+     */
+    public float getCellSize() {
+        return this.cellSize;
+    }
+
+    /**
+     * the scratch state of the queries made by one thread - the grid may be queried from several threads at once,
+     * but must not be changed while it is queried
+     */
+    private static class Scratch {
+
+        // objects already returned by the current query - objects spanning several cells are only returned once
+        private final Set<GameObject> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        // the candidates of the current intersection test or sweep
+        private final List<GameObject> candidates = new ArrayList<>();
+
+        // the region covered by the current sweep
+        private final Hitbox region = new Hitbox(0, 0, 0, 0, 0, 0);
+    }
+}
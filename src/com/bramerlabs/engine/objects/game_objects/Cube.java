@@ -1,14 +1,21 @@
 package com.bramerlabs.engine.objects.game_objects;
 
-import com.bramerlabs.engine.graphics.Material;
+import com.bramerlabs.engine.graphics.MaterialCache;
 import com.bramerlabs.engine.graphics.Mesh;
 import com.bramerlabs.engine.graphics.Vertex;
+import com.bramerlabs.engine.graphics.VertexFormat;
 import com.bramerlabs.engine.math.Vector2f;
 import com.bramerlabs.engine.math.Vector3f;
 import com.bramerlabs.engine.objects.GameObject;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 public class Cube extends GameObject {
 
+    // the unit cube mesh of each texture, shared by every cube with that texture
+    private static final Map<String, Mesh> meshes = new ConcurrentHashMap<>();
+
     /**
      *
      * @param position - the position of this cube
@@ -17,78 +24,55 @@ public class Cube extends GameObject {
      * @param pathToTexture - the path to the texture of this cube
      */
     public Cube(Vector3f position, Vector3f rotation, Vector3f scale, String pathToTexture) {
-        super(new Mesh(new Vertex[] {
-                // front face
-                new Vertex(new Vector3f(-0.5f, -0.5f,  0.5f), new Vector2f(0.5f, 0.5f)), // 0, 1
-                new Vertex(new Vector3f( 0.5f, -0.5f,  0.5f), new Vector2f(1.0f, 0.5f)), // 1, 1
-                new Vertex(new Vector3f( 0.5f,  0.5f,  0.5f), new Vector2f(1.0f, 0.0f)), // 1, 0
-                new Vertex(new Vector3f(-0.5f,  0.5f,  0.5f), new Vector2f(0.5f, 0.0f)), // 0, 0
-
-                // back face
-                new Vertex(new Vector3f(-0.5f, -0.5f, -0.5f), new Vector2f(1.0f, 0.5f)),
-                new Vertex(new Vector3f( 0.5f, -0.5f, -0.5f), new Vector2f(0.5f, 0.5f)),
-                new Vertex(new Vector3f( 0.5f,  0.5f, -0.5f), new Vector2f(0.5f, 0.0f)),
-                new Vertex(new Vector3f(-0.5f,  0.5f, -0.5f), new Vector2f(1.0f, 0.0f)),
-
-                // right face
-                new Vertex(new Vector3f( 0.5f, -0.5f,  0.5f), new Vector2f(0.5f, 0.5f)),
-                new Vertex(new Vector3f( 0.5f,  0.5f,  0.5f), new Vector2f(0.5f, 0.0f)),
-                new Vertex(new Vector3f( 0.5f, -0.5f, -0.5f), new Vector2f(1.0f, 0.5f)),
-                new Vertex(new Vector3f( 0.5f,  0.5f, -0.5f), new Vector2f(1.0f, 0.0f)),
-
-                // left face
-                new Vertex(new Vector3f(-0.5f, -0.5f,  0.5f), new Vector2f(1.0f, 0.5f)),
-                new Vertex(new Vector3f(-0.5f,  0.5f,  0.5f), new Vector2f(1.0f, 0.0f)),
-                new Vertex(new Vector3f(-0.5f, -0.5f, -0.5f), new Vector2f(0.5f, 0.5f)),
-                new Vertex(new Vector3f(-0.5f,  0.5f, -0.5f), new Vector2f(0.5f, 0.0f)),
-
-                // top face
-                new Vertex(new Vector3f( 0.5f,  0.5f,  0.5f), new Vector2f(0.5f, 0.5f)),
-                new Vertex(new Vector3f(-0.5f,  0.5f,  0.5f), new Vector2f(0.0f, 0.5f)),
-                new Vertex(new Vector3f( 0.5f,  0.5f, -0.5f), new Vector2f(0.5f, 0.0f)),
-                new Vertex(new Vector3f(-0.5f,  0.5f, -0.5f), new Vector2f(0.0f, 0.0f)),
-
-                // bottom face
-                new Vertex(new Vector3f(-0.5f, -0.5f,  0.5f), new Vector2f(1.0f, 1.0f)),
-                new Vertex(new Vector3f( 0.5f, -0.5f,  0.5f), new Vector2f(0.5f, 1.0f)),
-                new Vertex(new Vector3f(-0.5f, -0.5f, -0.5f), new Vector2f(1.0f, 0.5f)),
-                new Vertex(new Vector3f( 0.5f, -0.5f, -0.5f), new Vector2f(0.5f, 0.5f)),
-        }, new int[] {
-                // front face
-                0, 1, 2,
-                2, 3, 0,
-
-                // back face
-                5, 4, 7,
-                5, 7, 6,
-
-                // right face
-                8, 10, 11,
-                8, 11, 9,
-
-                // left face
-                14, 12, 13,
-                14, 13, 15,
-
-                // top face
-                17, 16, 18,
-                17, 18, 19,
-
-                // bottom face
-                20, 22, 23,
-                20, 23, 21,
-        }, new Material(pathToTexture)), position, rotation, scale);
+        super(getMesh(pathToTexture), position, rotation, scale);
     }
 
-
-
     /**
      * constructor for specified position with default rotation [0, 0, 0] and default scale [1, 1, 1]
      * @param position - the position of this cube
      * @param pathToTexture - the path to the texture of this cube
      */
     public Cube(Vector3f position, String pathToTexture) {
-        super(new Mesh(new Vertex[] {
+        super(getMesh(pathToTexture), position, new Vector3f(0, 0, 0), new Vector3f(1, 1, 1));
+    }
+
+    /**
+     * gets the unit cube mesh shared by every cube with a texture, making it the first time it is asked for
+     * the mesh is reference counted, so each cube creates and destroys it as usual and only the first and last call reach OpenGL
+     * @param pathToTexture - the path to the texture of the cube
+     * @return - the shared unit cube mesh
+     */
+    public static Mesh getMesh(String pathToTexture) {
+        return meshes.computeIfAbsent(pathToTexture, Cube::makeMesh);
+    }
+
+    /**
+     * releases the cube - once the last cube sharing its mesh is released, the mesh is forgotten as well,
+     * since its material has left the material cache and the next cube with this texture needs a new one
+     */
+    @Override
+    public void destroy() {
+        Mesh mesh = getMesh();
+        Mesh shared = meshes.computeIfPresent(mesh.getMaterial().getPathToTexture(), (path, cached) -> {
+            if (cached != mesh) {
+                return cached;
+            }
+            mesh.destroy();
+            return mesh.getReferences() > 0 ? mesh : null;
+        });
+        // the mesh was already forgotten by an earlier release, and is only released for this cube
+        if (shared != mesh && mesh.getReferences() > 0) {
+            mesh.destroy();
+        }
+    }
+
+    /**
+     * creates the unit cube mesh, centered at the origin - it fits within [-1, 1], so it uses the compact vertex format
+     * @param pathToTexture - the path to the texture of the cube
+     * @return - a new unit cube mesh
+     */
+    public static Mesh makeMesh(String pathToTexture) {
+        return new Mesh(new Vertex[] {
                 // front face
                 new Vertex(new Vector3f(-0.5f, -0.5f,  0.5f), new Vector2f(0.5f, 0.5f)), // 0, 1
                 new Vertex(new Vector3f( 0.5f, -0.5f,  0.5f), new Vector2f(1.0f, 0.5f)), // 1, 1
@@ -148,6 +132,6 @@ public class Cube extends GameObject {
                 // bottom face
                 20, 22, 23,
                 20, 23, 21,
-        }, new Material(pathToTexture)), position, new Vector3f(0, 0, 0), new Vector3f(1, 1, 1));
+        }, MaterialCache.get(pathToTexture), VertexFormat.COMPACT);
     }
 }
@@ -3,12 +3,10 @@ package com.bramerlabs.engine.objects.game_objects;
 import com.bramerlabs.engine.math.Vector3f;
 import com.bramerlabs.engine.io.window.Input;
 import com.bramerlabs.engine.objects.Camera;
-import com.bramerlabs.engine.objects.GameObject;
-import com.bramerlabs.engine.objects.Hitbox;
+import com.bramerlabs.engine.objects.CollisionWorld;
+import com.bramerlabs.engine.objects.physics.Body;
 import org.lwjgl.glfw.GLFW;
 
-import java.util.ArrayList;
-
 public class Player extends Cube {
 
     // input class for handling key events
@@ -17,17 +15,15 @@ public class Player extends Cube {
     // camera class for handling motion
     private Camera camera;
 
-    // the movement speed of the player
-    private static final float moveSpeed = 0.1f;
-    private static final float jumpSpeed = 0.2f;
+    // the movement speed of the player, in units per second
+    private static final float moveSpeed = 6.0f;
+    private static final float jumpSpeed = 12.0f;
+
+    // the physics of the player - gravity and collisions
+    private final Body body = new Body(this);
 
-    // physics values
-    private static final float gravitationalAcceleration = -0.01f;
-    private float dy = 0;
-    private boolean onGround = false;
-    // coyote time for jumping
-    private static final int coyoteTime = 30; // 30 frames of coyote time
-    private int currentCoyote = 0;
+    // scratch vector, reused between frames so that updating does not allocate
+    private final Vector3f dPos = new Vector3f(0);
 
     /**
      * constructor for specified existence
@@ -66,89 +62,54 @@ public class Player extends Cube {
     }
 
     /**
-     * updates this player position
+     * updates this player position by one simulation tick
+     * @param world - the solid parts of the world the player can collide with
+     * @param dt - the length of the tick, in seconds
      */
-    public void update(ArrayList<GameObject> gameObjects) {
+    public void update(CollisionWorld world, float dt) {
+        applyInput();
+        body.step(world, dt);
+    }
+
+    /**
+     * sets the velocity of the player's body from the held keys - call before each tick of the physics world holding the body
+     */
+    public void applyInput() {
 
         // create a vector pointing in the direction of motion
         // handle motion
         float moveSpeed = Player.moveSpeed;
         if (input.isKeyDown(GLFW.GLFW_KEY_LEFT_CONTROL)) moveSpeed *= 2;
-        // create a movement vector
-        Vector3f move = new Vector3f(0, 0, -moveSpeed);
+        // the movement vector is [0, 0, -moveSpeed]
         // get the horizontal angle normal to the vector [0, 1, 0]
         float theta = (float) Math.toRadians(camera.getHorizontalAngle());
-        float oldX = move.getX();
-        float oldZ = move.getZ();
+        float oldX = 0;
+        float oldZ = -moveSpeed;
         // create dx and dz movement based on angular rotation of the movement vector corresponding to the horizontal angle of the camera
         float dx = (float) (oldX * Math.cos(theta) - oldZ * Math.sin(theta));
         float dz = (float) (oldX * Math.sin(theta) + oldZ * Math.cos(theta));
 
-        // create new temp position based on the key inputs
-        Vector3f dPos = new Vector3f(0, 0, 0);
+        // create new temp velocity based on the key inputs
+        dPos.set(0, 0, 0);
         // handle key presses
         // forward and backward
-        if (input.isKeyDown(GLFW.GLFW_KEY_W)) dPos = Vector3f.add(dPos, new Vector3f(dx, 0, dz));
-        if (input.isKeyDown(GLFW.GLFW_KEY_S)) dPos = Vector3f.add(dPos, new Vector3f(-dx, 0, -dz));
+        if (input.isKeyDown(GLFW.GLFW_KEY_W)) dPos.add(dx, 0, dz);
+        if (input.isKeyDown(GLFW.GLFW_KEY_S)) dPos.add(-dx, 0, -dz);
         // strafing
-        if (input.isKeyDown(GLFW.GLFW_KEY_A)) dPos = Vector3f.add(dPos, new Vector3f(dz, 0, -dx));
-        if (input.isKeyDown(GLFW.GLFW_KEY_D)) dPos = Vector3f.add(dPos, new Vector3f(-dz, 0, dx));
+        if (input.isKeyDown(GLFW.GLFW_KEY_A)) dPos.add(dz, 0, -dx);
+        if (input.isKeyDown(GLFW.GLFW_KEY_D)) dPos.add(-dz, 0, dx);
+        body.setHorizontalVelocity(dPos.getX(), dPos.getZ());
         // up and down
-        if (input.isKeyDown(GLFW.GLFW_KEY_SPACE) && onGround) {
-            dPos = Vector3f.add(dPos, new Vector3f(0, jumpSpeed, 0));
-            onGround = false;
-        }
-
-        // check to see if the player is on a ground surface
-        // create the current hitbox
-        Vector3f curMin = Vector3f.subtract(this.getPosition(), Vector3f.scale(this.getScale(), 0.5f));
-        Vector3f curMax = Vector3f.add(this.getPosition(), Vector3f.scale(this.getScale(), 0.5f));
-        Hitbox groundCheck = new Hitbox(curMin.getX(), curMax.getX(), curMin.getY() - 0.1f, curMax.getY(), curMin.getZ(), curMax.getZ());
-        for (GameObject o : gameObjects) {
-            if (!groundCheck.intersects(o.getHitbox())) {
-                if (currentCoyote >= coyoteTime) {
-                    onGround = false;
-                    currentCoyote = 0;
-                }
-                currentCoyote ++;
-            }
-        }
-
-        // change dy based on the effect of gravity
-        if (!onGround) {
-            dy += gravitationalAcceleration;
-        }
-        dPos = Vector3f.add(dPos, new Vector3f(0, dy, 0));
-
-        // check collision by attempting to move the player
-        // create dx, dy, dz components
-        dx = dPos.getX();
-        dz = dPos.getZ();
-        dy = dPos.getY();
-
-        // find the min/max x, y, z
-        Vector3f newPos = Vector3f.add(this.getPosition(), dPos);
-        Vector3f newMin = Vector3f.subtract(newPos, Vector3f.scale(this.getScale(), 0.5f));
-        Vector3f newMax = Vector3f.add(newPos, Vector3f.scale(this.getScale(), 0.5f));
-        // create temporary hitboxes corresponding to each coordinate delta
-        Hitbox hdx = new Hitbox(newMin.getX(), newMax.getX(), curMin.getY(), curMax.getY(), curMin.getZ(), curMax.getZ());
-        Hitbox hdy = new Hitbox(curMin.getX(), curMax.getX(), newMin.getY(), newMax.getY(), curMin.getZ(), curMax.getZ());
-        Hitbox hdz = new Hitbox(curMin.getX(), curMax.getX(), curMin.getY(), curMax.getY(), newMin.getZ(), newMax.getZ());
-        // check the hitboxes of other game objects
-        for (GameObject o : gameObjects) {
-            if (hdx.intersects(o.getHitbox())) {
-                dx = 0;
-            }
-            if (hdy.intersects(o.getHitbox())) {
-                dy = 0;
-                onGround = true;
-            }
-            if (hdz.intersects(o.getHitbox())) {
-                dz = 0;
-            }
+        if (input.isKeyDown(GLFW.GLFW_KEY_SPACE) && body.canJump()) {
+            body.jump(jumpSpeed);
         }
+    }
 
-        // move the player
-        this.setPosition(Vector3f.add(getPosition(), new Vector3f(dx, dy, dz)));
+    /**
+     * getter method
+     * @return - the physics of the player
+     */
+    public Body getBody() {
+        return this.body;
     }
-}
\ No newline at end of file
+}
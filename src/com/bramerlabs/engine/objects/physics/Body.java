@@ -0,0 +1,228 @@
+package com.bramerlabs.engine.objects.physics;
+
+import com.bramerlabs.engine.math.Vector3f;
+import com.bramerlabs.engine.objects.CollisionWorld;
+import com.bramerlabs.engine.objects.Contact;
+import com.bramerlabs.engine.objects.GameObject;
+import com.bramerlabs.engine.objects.Hitbox;
+
+public class Body {
+
+    // the acceleration of falling bodies, in units per second squared
+    public static final float GRAVITY = -36.0f;
+
+    // how long a body may still jump after it stops touching the ground, in seconds - about two ticks at the default tick rate
+    private static final float COYOTE_TIME = 0.04f;
+
+    // how far below a body the ground is looked for
+    static final float GROUND_CHECK = 0.1f;
+
+    // the most faces a body slides along in one tick - one per axis
+    private static final int MAX_SLIDES = 3;
+
+    // the object moved by this body
+    private GameObject object;
+
+    // the velocity, in units per second - the horizontal part is set by whatever drives the body, the vertical part is kept between ticks
+    private float vx, vy, vz;
+
+    // vertical speed added on the next tick, after gravity
+    private float impulse;
+
+    // true if the body falls
+    private boolean gravity = true;
+
+    // true if the body is standing on something, and how long it has not stood on anything
+    private boolean onGround = false;
+    private float airTime = COYOTE_TIME;
+
+    // scratch vectors and hitboxes, reused between ticks so that stepping does not allocate
+    private final Vector3f position = new Vector3f(0), halfScale = new Vector3f(0), curMin = new Vector3f(0), curMax = new Vector3f(0);
+    private final Hitbox groundCheck = new Hitbox(0, 0, 0, 0, 0, 0), box = new Hitbox(0, 0, 0, 0, 0, 0);
+    private final Contact contact = new Contact();
+
+    /**
+     * default constructor for a specified object
+     * @param object - the object moved by this body, sized by its scale
+     */
+    public Body(GameObject object) {
+        this.object = object;
+    }
+
+    /**
+     * moves the body by one simulation tick - the vertical velocity is changed by gravity and collisions,
+     * and the motion is swept against the world, sliding along whatever it hits
+     * @param world - the solid parts of the world the body can collide with
+     * @param dt - the length of the tick, in seconds
+     */
+    public void step(CollisionWorld world, float dt) {
+        // the object is only read once and written once, so an object in a store is stepped on its row
+        position.set(object.getPosition());
+
+        // check to see if the body is on a ground surface
+        Vector3f.scale(object.getScale(), 0.5f, halfScale);
+        Vector3f.subtract(position, halfScale, curMin);
+        Vector3f.add(position, halfScale, curMax);
+        groundCheck.setValues(curMin.getX(), curMax.getX(), curMin.getY() - GROUND_CHECK, curMax.getY(), curMin.getZ(), curMax.getZ());
+        // a body starts falling as soon as nothing is below it, but may still jump for a moment
+        if (!world.intersects(groundCheck)) {
+            onGround = false;
+        }
+        if (onGround) {
+            airTime = 0;
+        } else {
+            airTime += dt;
+        }
+
+        // change the vertical velocity based on the effect of gravity
+        if (gravity && !onGround) {
+            vy += GRAVITY * dt;
+        }
+        float dy = impulse + vy;
+        impulse = 0;
+
+        // sweep the motion, moving up to each hit and sliding the rest of the way along the hit face
+        float mx = vx * dt, my = dy * dt, mz = vz * dt;
+        box.setValues(curMin.getX(), curMax.getX(), curMin.getY(), curMax.getY(), curMin.getZ(), curMax.getZ());
+        boolean moved = false;
+        for (int i = 0; i < MAX_SLIDES && (mx != 0 || my != 0 || mz != 0); i++) {
+            contact.reset();
+            world.sweep(box, mx, my, mz, contact);
+            float t = contact.getTime();
+            position.add(mx * t, my * t, mz * t);
+
+            // rest against the hit face and stop moving into it
+            switch (contact.getAxis()) {
+                case Contact.X_AXIS:
+                    position.setX(contact.getFace() + (mx > 0 ? -halfScale.getX() : halfScale.getX()));
+                    mx = 0;
+                    break;
+                case Contact.Y_AXIS:
+                    position.setY(contact.getFace() + (my > 0 ? -halfScale.getY() : halfScale.getY()));
+                    if (my < 0) {
+                        onGround = true;
+                    }
+                    my = 0;
+                    dy = 0;
+                    break;
+                case Contact.Z_AXIS:
+                    position.setZ(contact.getFace() + (mz > 0 ? -halfScale.getZ() : halfScale.getZ()));
+                    mz = 0;
+                    break;
+            }
+            box.setValues(position.getX() - halfScale.getX(), position.getX() + halfScale.getX(),
+                    position.getY() - halfScale.getY(), position.getY() + halfScale.getY(),
+                    position.getZ() - halfScale.getZ(), position.getZ() + halfScale.getZ());
+            moved = true;
+
+            float rest = 1 - t;
+            mx *= rest;
+            my *= rest;
+            mz *= rest;
+        }
+        if (moved) {
+            object.setPosition(position.getX(), position.getY(), position.getZ());
+        }
+        vy = dy;
+    }
+
+    /**
+     * makes the body jump on the next tick
+     * @param speed - the vertical speed of the jump, in units per second
+     */
+    public void jump(float speed) {
+        impulse += speed;
+        onGround = false;
+        airTime = COYOTE_TIME;
+    }
+
+    /**
+     * sets the horizontal velocity, kept until it is set again
+     * @param vx - the velocity along x, in units per second
+     * @param vz - the velocity along z, in units per second
+     */
+    public void setHorizontalVelocity(float vx, float vz) {
+        this.vx = vx;
+        this.vz = vz;
+    }
+
+    /**
+     * sets the vertical velocity
+     * @param vy - the velocity along y, in units per second
+     */
+    public void setVerticalVelocity(float vy) {
+        this.vy = vy;
+    }
+
+    /**
+     * sets if the body falls
+     * @param gravity - true if the body falls, false for bodies like moving platforms
+     */
+    public void setGravity(boolean gravity) {
+        this.gravity = gravity;
+    }
+
+    /**
+     * getter method
+     * @return - the object moved by this body
+     */
+    public GameObject getObject() {
+        return this.object;
+    }
+
+    /**
+     * getter method
+     * @return - the velocity along x, in units per second
+     */
+    public float getVelocityX() {
+        return this.vx;
+    }
+
+    /**
+     * getter method
+     * @return - the velocity along y, in units per second
+     */
+    public float getVelocityY() {
+        return this.vy;
+    }
+
+    /**
+     * getter method
+     * @return - the velocity along z, in units per second
+     */
+    public float getVelocityZ() {
+        return this.vz;
+    }
+
+    /**
+     * getter method
+     * @return - the vertical speed that will be added on the next tick
+     */
+    float getImpulse() {
+        return this.impulse;
+    }
+
+    /**
+     * getter method
+     * @return - true if the body falls
+     */
+    public boolean hasGravity() {
+        return this.gravity;
+    }
+
+    /**
+     * getter method
+     * @return - true if the body is standing on something
+     */
+    public boolean isOnGround() {
+        return this.onGround;
+    }
+
+    /**
+     * getter method
+     * @return - true if the body is standing on something, or stopped standing on something less than the coyote time ago
+     */
+    public boolean canJump() {
+        return this.onGround || this.airTime < COYOTE_TIME;
+    }
+}
@@ -0,0 +1,383 @@
+package com.bramerlabs.engine.objects.physics;
+
+import com.bramerlabs.engine.objects.CollisionWorld;
+import com.bramerlabs.engine.objects.Contact;
+import com.bramerlabs.engine.objects.EntityStore;
+import com.bramerlabs.engine.objects.Hitbox;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+public class PhysicsWorld {
+
+    // added to the reach of every body, so bodies that only just touch still share an island
+    private static final float MARGIN = 1e-3f;
+
+    // the fewest bodies one task steps - smaller groups of islands are stepped on the calling thread
+    private static final int MIN_TASK_BODIES = 64;
+
+    // the solid, unmoving parts of the world - must allow intersection tests from several threads at once
+    private CollisionWorld world;
+
+    // the bodies, stepped in the order they were added within each island
+    private List<Body> bodies = new ArrayList<>();
+
+    // holds the position, scale and hitbox of the object of every body in its columns
+    private EntityStore store = new EntityStore();
+
+    // the row of each body in the store, found again every tick since removing a body moves another into its row
+    private int[] rows = new int[0];
+
+    // the hitbox and flag columns of the store during the current tick
+    private float[][] boxes;
+    private int[] flags;
+
+    // steps the islands, or null to step everything on the calling thread
+    private ForkJoinPool pool;
+
+    // the box each body may touch during the current tick, six floats per body in the order of the hitbox value constants
+    private float[] reach = new float[0];
+
+    // the bodies sorted by the lowest x of their reach, for sweeping along x - the key of a body holds its lowest x in the high bits and its index in the low bits
+    private long[] keys = new long[0];
+
+    // the reaches in sorted order, so the sweep reads memory in order
+    private float[] sortedReach = new float[0];
+
+    // the union-find parent of each body, joined for every overlapping pair of reaches
+    private int[] parents = new int[0];
+
+    // the islands of the current tick, reused between ticks, and the number in use
+    private List<Island> islands = new ArrayList<>();
+    private int islandCount;
+
+    // the island of each root body during grouping
+    private int[] islandOf = new int[0];
+
+    /**
+     * default constructor for a specified static world, stepping islands on every core but one
+     * @param world - the solid, unmoving parts of the world, which must allow intersection tests from several threads at once
+     */
+    public PhysicsWorld(CollisionWorld world) {
+        this(world, Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+    }
+
+    /**
+     * constructor for a specified static world and number of threads
+     * @param world - the solid, unmoving parts of the world, which must allow intersection tests from several threads at once
+     * @param parallelism - the number of threads stepping islands, 1 to step everything on the calling thread
+     */
+    public PhysicsWorld(CollisionWorld world, int parallelism) {
+        this.world = world;
+        if (parallelism > 1) {
+            pool = new ForkJoinPool(parallelism);
+        }
+    }
+
+    /**
+     * adds a body, which collides with the static world and with the other bodies - its object is added to the store of this world
+     * @param body - the body, whose object must not be in a store already
+     */
+    public void add(Body body) {
+        store.add(body.getObject());
+        bodies.add(body);
+    }
+
+    /**
+     * removes a body - its object leaves the store of this world, keeping its values
+     * @param body - the body
+     */
+    public void remove(Body body) {
+        if (bodies.remove(body)) {
+            store.remove(body.getObject());
+        }
+    }
+
+    /**
+     * moves every body by one simulation tick - bodies that can not touch during the tick are split into islands,
+     * which are stepped in parallel, so the result is the same for any number of threads
+     * @param dt - the length of the tick, in seconds
+     */
+    public void step(float dt) {
+        for (Body body : bodies) {
+            body.getObject().savePreviousPosition();
+        }
+        buildIslands(dt);
+
+        if (pool == null || bodies.size() < MIN_TASK_BODIES * 2) {
+            for (int i = 0; i < islandCount; i++) {
+                islands.get(i).step(dt);
+            }
+        } else {
+            pool.invoke(new StepTask(0, islandCount, dt));
+        }
+    }
+
+    /**
+     * helper method to group the bodies into islands - two bodies share an island if their reaches overlap, directly or through other bodies
+     * @param dt - the length of the tick, in seconds
+     */
+    private void buildIslands(float dt) {
+        int n = bodies.size();
+        if (parents.length < n) {
+            int capacity = Math.max(n, parents.length * 2);
+            rows = new int[capacity];
+            reach = new float[capacity * Hitbox.NUM_VAL];
+            keys = new long[capacity];
+            sortedReach = new float[capacity * Hitbox.NUM_VAL];
+            parents = new int[capacity];
+            islandOf = new int[capacity];
+        }
+
+        // the columns are only replaced when the store grows, which it does not during a tick
+        boxes = store.getBoxes();
+        flags = store.getFlags();
+        for (int i = 0; i < n; i++) {
+            Body body = bodies.get(i);
+            rows[i] = store.indexOf(body.getObject().getHandle());
+            computeReach(body, rows[i], dt, i * Hitbox.NUM_VAL);
+            parents[i] = i;
+
+            // flip the float bits so the keys sort like the floats - ties are broken by index so the islands never depend on timing
+            int bits = Float.floatToIntBits(reach[i * Hitbox.NUM_VAL + Hitbox.X_MIN]);
+            bits ^= (bits >> 31) & Integer.MAX_VALUE;
+            keys[i] = (long) bits << 32 | i;
+        }
+        Arrays.sort(keys, 0, n);
+        for (int i = 0; i < n; i++) {
+            System.arraycopy(reach, (int) keys[i] * Hitbox.NUM_VAL, sortedReach, i * Hitbox.NUM_VAL, Hitbox.NUM_VAL);
+        }
+
+        // sweep along x, only testing pairs whose x ranges overlap
+        float[] r = sortedReach;
+        for (int i = 0; i < n; i++) {
+            int a = i * Hitbox.NUM_VAL;
+            float xMax = r[a + Hitbox.X_MAX], yMin = r[a + Hitbox.Y_MIN], yMax = r[a + Hitbox.Y_MAX];
+            float zMin = r[a + Hitbox.Z_MIN], zMax = r[a + Hitbox.Z_MAX];
+            for (int j = i + 1; j < n; j++) {
+                int b = j * Hitbox.NUM_VAL;
+                if (r[b + Hitbox.X_MIN] > xMax) {
+                    break;
+                }
+                if (r[b + Hitbox.Y_MIN] <= yMax && r[b + Hitbox.Y_MAX] >= yMin && r[b + Hitbox.Z_MIN] <= zMax && r[b + Hitbox.Z_MAX] >= zMin) {
+                    union((int) keys[i], (int) keys[j]);
+                }
+            }
+        }
+
+        // number the islands by their first body, keeping the bodies of each island in the order they were added
+        for (int i = 0; i < islandCount; i++) {
+            islands.get(i).clear();
+        }
+        islandCount = 0;
+        for (int i = 0; i < n; i++) {
+            int root = find(i);
+            if (root == i) {
+                if (islandCount == islands.size()) {
+                    islands.add(new Island());
+                }
+                islandOf[i] = islandCount++;
+            }
+            islands.get(islandOf[root]).add(bodies.get(i), rows[i]);
+        }
+    }
+
+    /**
+     * helper method to find the box a body may touch during a tick - its hitbox stretched by its motion and the ground check below it
+     * @param body - the body
+     * @param row - the row of the body in the store
+     * @param dt - the length of the tick, in seconds
+     * @param offset - the offset of the box in the reach array
+     */
+    private void computeReach(Body body, int row, float dt, int offset) {
+        // the vertical speed may grow by gravity and the impulse before moving
+        float vy = body.getVelocityY();
+        float fall = body.hasGravity() ? Math.abs(Body.GRAVITY * dt) : 0;
+        float ry = (Math.abs(vy) + fall + Math.abs(body.getImpulse())) * dt;
+        float rx = Math.abs(body.getVelocityX()) * dt, rz = Math.abs(body.getVelocityZ()) * dt;
+
+        reach[offset + Hitbox.X_MIN] = boxes[Hitbox.X_MIN][row] - rx - MARGIN;
+        reach[offset + Hitbox.X_MAX] = boxes[Hitbox.X_MAX][row] + rx + MARGIN;
+        reach[offset + Hitbox.Y_MIN] = boxes[Hitbox.Y_MIN][row] - Math.max(ry, Body.GROUND_CHECK) - MARGIN;
+        reach[offset + Hitbox.Y_MAX] = boxes[Hitbox.Y_MAX][row] + ry + MARGIN;
+        reach[offset + Hitbox.Z_MIN] = boxes[Hitbox.Z_MIN][row] - rz - MARGIN;
+        reach[offset + Hitbox.Z_MAX] = boxes[Hitbox.Z_MAX][row] + rz + MARGIN;
+    }
+
+    /**
+     * helper method to find the root of a body's group, flattening the path on the way
+     * @param i - the index of the body
+     * @return - the index of the root body
+     */
+    private int find(int i) {
+        while (parents[i] != i) {
+            parents[i] = parents[parents[i]];
+            i = parents[i];
+        }
+        return i;
+    }
+
+    /**
+     * helper method to join the groups of two bodies - the lower index becomes the root, so roots are always the first body of their island
+     * @param a - the index of the first body
+     * @param b - the index of the second body
+     */
+    private void union(int a, int b) {
+        int ra = find(a), rb = find(b);
+        if (ra < rb) {
+            parents[rb] = ra;
+        } else if (rb < ra) {
+            parents[ra] = rb;
+        }
+    }
+
+    /**
+     * getter method
+     * @return - the number of islands in the last tick
+     */
+    public int getIslandCount() {
+        return this.islandCount;
+    }
+
+    /**
+     * getter method
+     * @return - the bodies
+     */
+    public List<Body> getBodies() {
+        return this.bodies;
+    }
+
+    /**
+     * getter method
+     * @return - the store holding the objects of the bodies
+     */
+    public EntityStore getStore() {
+        return this.store;
+    }
+
+    /**
+     * stops the threads stepping the islands
+     */
+    public void destroy() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * bodies that may touch each other during a tick, stepped in order on one thread
+     */
+    private class Island implements CollisionWorld {
+
+        // the bodies of the island, and the row of each in the store
+        private List<Body> bodies = new ArrayList<>();
+        private int[] bodyRows = new int[16];
+
+        // the index of the body being stepped, which does not collide with itself
+        private int current = -1;
+
+        /**
+         * adds a body to the island
+         * @param body - the body
+         * @param row - the row of the body in the store
+         */
+        private void add(Body body, int row) {
+            if (bodies.size() == bodyRows.length) {
+                bodyRows = Arrays.copyOf(bodyRows, bodyRows.length * 2);
+            }
+            bodyRows[bodies.size()] = row;
+            bodies.add(body);
+        }
+
+        /**
+         * removes every body from the island, so it can be reused
+         */
+        private void clear() {
+            bodies.clear();
+        }
+
+        /**
+         * steps every body of the island in order, each seeing the others where they are at that moment
+         * @param dt - the length of the tick, in seconds
+         */
+        private void step(float dt) {
+            for (int i = 0; i < bodies.size(); i++) {
+                current = i;
+                bodies.get(i).step(this, dt);
+            }
+            current = -1;
+        }
+
+        @Override
+        public boolean intersects(Hitbox box) {
+            if (world.intersects(box)) {
+                return true;
+            }
+            for (int i = 0; i < bodies.size(); i++) {
+                int row = bodyRows[i];
+                if (i != current && box.intersects(boxes, row, flags[row])) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void sweep(Hitbox box, float dx, float dy, float dz, Contact contact) {
+            world.sweep(box, dx, dy, dz, contact);
+            for (int i = 0; i < bodies.size(); i++) {
+                int row = bodyRows[i];
+                if (i != current) {
+                    box.sweep(dx, dy, dz, boxes, row, flags[row], contact);
+                }
+            }
+        }
+    }
+
+    /**
+     * steps a range of islands, splitting it in half while it holds enough bodies to be worth another task
+     */
+    private class StepTask extends RecursiveAction {
+
+        // tasks are never serialized, but RecursiveAction is Serializable
+        private static final long serialVersionUID = 1L;
+
+        // the range of islands
+        private int start, end;
+
+        // the length of the tick, in seconds
+        private float dt;
+
+        /**
+         * default constructor for a specified range of islands
+         * @param start - the first island
+         * @param end - one past the last island
+         * @param dt - the length of the tick, in seconds
+         */
+        private StepTask(int start, int end, float dt) {
+            this.start = start;
+            this.end = end;
+            this.dt = dt;
+        }
+
+        @Override
+        protected void compute() {
+            int count = 0;
+            for (int i = start; i < end && count < MIN_TASK_BODIES * 2; i++) {
+                count += islands.get(i).bodies.size();
+            }
+            if (end - start < 2 || count < MIN_TASK_BODIES * 2) {
+                for (int i = start; i < end; i++) {
+                    islands.get(i).step(dt);
+                }
+                return;
+            }
+            int middle = (start + end) >>> 1;
+            ForkJoinTask.invokeAll(new StepTask(start, middle, dt), new StepTask(middle, end, dt));
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.bramerlabs.engine.objects.voxel;
+
+public class Chunk {
+
+    // the number of blocks along each side of a chunk - a power of two, so block coordinates split with shifts
+    public static final int SIZE_BITS = 5;
+    public static final int SIZE = 1 << SIZE_BITS;
+    public static final int MASK = SIZE - 1;
+
+    // the block id of empty space
+    public static final short AIR = 0;
+
+    // the position of this chunk, in chunks
+    private final int chunkX, chunkY, chunkZ;
+
+    // the block ids, indexed by (y * SIZE + z) * SIZE + x
+    private short[] blocks = new short[SIZE * SIZE * SIZE];
+
+    // the number of blocks that are not air
+    private int solidBlocks;
+
+    // true if the blocks changed since the chunk was last meshed
+    private boolean dirty = false;
+
+    /**
+     * default constructor for a specified chunk position
+     * @param chunkX - the x position of the chunk, in chunks
+     * @param chunkY - the y position of the chunk, in chunks
+     * @param chunkZ - the z position of the chunk, in chunks
+     */
+    public Chunk(int chunkX, int chunkY, int chunkZ) {
+        this.chunkX = chunkX;
+        this.chunkY = chunkY;
+        this.chunkZ = chunkZ;
+    }
+
+    /**
+     * getter method
+     * @param x - the x position of the block within the chunk
+     * @param y - the y position of the block within the chunk
+     * @param z - the z position of the block within the chunk
+     * @return - the id of the block
+     */
+    public short getBlock(int x, int y, int z) {
+        return blocks[index(x, y, z)];
+    }
+
+    /**
+     * sets a block of this chunk
+     * @param x - the x position of the block within the chunk
+     * @param y - the y position of the block within the chunk
+     * @param z - the z position of the block within the chunk
+     * @param id - the id of the block, or AIR to clear it
+     */
+    public void setBlock(int x, int y, int z, short id) {
+        int index = index(x, y, z);
+        short old = blocks[index];
+        if (old == id) {
+            return;
+        }
+        if (old == AIR) {
+            solidBlocks++;
+        } else if (id == AIR) {
+            solidBlocks--;
+        }
+        blocks[index] = id;
+        dirty = true;
+    }
+
+    /**
+     * helper method to find the array index of a block
+     * @param x - the x position of the block within the chunk
+     * @param y - the y position of the block within the chunk
+     * @param z - the z position of the block within the chunk
+     * @return - the index of the block
+     */
+    private static int index(int x, int y, int z) {
+        return (((y << SIZE_BITS) | z) << SIZE_BITS) | x;
+    }
+
+    /**
+     * getter method
+     * @return - true if every block of this chunk is air
+     */
+    public boolean isEmpty() {
+        return solidBlocks == 0;
+    }
+
+    /**
+     * getter method
+     * @return - true if the blocks changed since the chunk was last meshed
+     */
+    public boolean isDirty() {
+        return this.dirty;
+    }
+
+    /**
+     * marks the chunk as meshed or as needing to be meshed again
+     * @param dirty - true if the chunk needs to be meshed again
+     */
+    public void setDirty(boolean dirty) {
+        this.dirty = dirty;
+    }
+
+    /**
+     * getter method
+     * @return - the x position of the chunk, in chunks
+     */
+    public int getChunkX() {
+        return this.chunkX;
+    }
+
+    /**
+     * getter method
+     * @return - the y position of the chunk, in chunks
+     */
+    public int getChunkY() {
+        return this.chunkY;
+    }
+
+    /**
+     * getter method
+     * @return - the z position of the chunk, in chunks
+     */
+    public int getChunkZ() {
+        return this.chunkZ;
+    }
+}
@@ -0,0 +1,217 @@
+package com.bramerlabs.engine.objects.voxel;
+
+import com.bramerlabs.engine.graphics.Mesh;
+import com.bramerlabs.engine.graphics.Vertex;
+import com.bramerlabs.engine.math.Vector2f;
+import com.bramerlabs.engine.math.Vector3f;
+import com.bramerlabs.engine.objects.GameObject;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class GreedyMesher {
+
+    // the visible faces of one slice of the chunk - the block id, positive for faces looking along the axis and negative against it
+    private short[] mask = new short[Chunk.SIZE * Chunk.SIZE];
+
+    // the geometry of each block id in the chunk being meshed
+    private Map<Short, Builder> builders = new LinkedHashMap<>();
+
+    // the number of quads in the last meshed chunk
+    private int quads;
+
+    /**
+     * meshes the visible faces of a chunk, merging neighbouring faces of the same block into as few quads as possible
+     * @param world - the world the chunk belongs to, used to hide faces against the neighbouring chunks
+     * @param chunk - the chunk
+     * @return - one static object per block id in the chunk, positioned at the chunk - their meshes still need to be created
+     */
+    public List<GameObject> mesh(VoxelWorld world, Chunk chunk) {
+        builders.clear();
+        quads = 0;
+        int originX = chunk.getChunkX() * Chunk.SIZE, originY = chunk.getChunkY() * Chunk.SIZE, originZ = chunk.getChunkZ() * Chunk.SIZE;
+        int[] position = new int[3];
+        int[] step = new int[3];
+
+        // sweep a plane along each axis, with u and v spanning the plane
+        for (int d = 0; d < 3; d++) {
+            int u = (d + 1) % 3, v = (d + 2) % 3;
+            Arrays.fill(step, 0);
+            step[d] = 1;
+
+            // slice s lies between block s - 1 and block s along the axis
+            for (int s = 0; s <= Chunk.SIZE; s++) {
+                position[d] = s;
+                for (int j = 0; j < Chunk.SIZE; j++) {
+                    position[v] = j;
+                    for (int i = 0; i < Chunk.SIZE; i++) {
+                        position[u] = i;
+                        int x = originX + position[0], y = originY + position[1], z = originZ + position[2];
+                        short behind = world.getBlock(x - step[0], y - step[1], z - step[2]);
+                        short front = world.getBlock(x, y, z);
+
+                        // only faces of blocks inside this chunk belong to it
+                        short face = 0;
+                        if (s > 0 && behind != Chunk.AIR && front == Chunk.AIR) {
+                            face = behind;
+                        } else if (s < Chunk.SIZE && front != Chunk.AIR && behind == Chunk.AIR) {
+                            face = (short) -front;
+                        }
+                        mask[j * Chunk.SIZE + i] = face;
+                    }
+                }
+                mergeSlice(world, d, u, v, s);
+            }
+        }
+
+        List<GameObject> objects = new ArrayList<>();
+        for (Map.Entry<Short, Builder> entry : builders.entrySet()) {
+            Builder builder = entry.getValue();
+            Mesh mesh = new Mesh(builder.vertices.toArray(new Vertex[0]), Arrays.copyOf(builder.indices, builder.indexCount),
+                    world.getMaterial(entry.getKey()));
+
+            // the vertices are relative to the chunk corner, so the hitbox is set to the chunk bounds
+            GameObject object = new GameObject(mesh, new Vector3f(originX, originY, originZ), new Vector3f(0), new Vector3f(1));
+            object.getHitbox().setValues(originX - 0.5f, originX + Chunk.SIZE - 0.5f,
+                    originY - 0.5f, originY + Chunk.SIZE - 0.5f, originZ - 0.5f, originZ + Chunk.SIZE - 0.5f);
+            objects.add(object);
+        }
+        chunk.setDirty(false);
+        return objects;
+    }
+
+    /**
+     * helper method to cover the faces of one slice with rectangles, greedily growing each along u and then v
+     * @param world - the world, used for the block materials
+     * @param d - the axis the slice is perpendicular to
+     * @param u - the first axis of the slice
+     * @param v - the second axis of the slice
+     * @param s - the position of the slice
+     */
+    private void mergeSlice(VoxelWorld world, int d, int u, int v, int s) {
+        for (int j = 0; j < Chunk.SIZE; j++) {
+            for (int i = 0; i < Chunk.SIZE; ) {
+                short face = mask[j * Chunk.SIZE + i];
+                if (face == 0) {
+                    i++;
+                    continue;
+                }
+
+                // grow along u while the faces match
+                int width = 1;
+                while (i + width < Chunk.SIZE && mask[j * Chunk.SIZE + i + width] == face) {
+                    width++;
+                }
+
+                // grow along v while every face of the next row matches
+                int height = 1;
+                grow:
+                while (j + height < Chunk.SIZE) {
+                    for (int k = 0; k < width; k++) {
+                        if (mask[(j + height) * Chunk.SIZE + i + k] != face) {
+                            break grow;
+                        }
+                    }
+                    height++;
+                }
+
+                // remove the covered faces
+                for (int l = 0; l < height; l++) {
+                    Arrays.fill(mask, (j + l) * Chunk.SIZE + i, (j + l) * Chunk.SIZE + i + width, (short) 0);
+                }
+
+                short id = (short) Math.abs(face);
+                if (world.getMaterial(id) != null) {
+                    addQuad(builders.computeIfAbsent(id, k -> new Builder()), d, u, v, s, i, j, width, height, face > 0);
+                    quads++;
+                }
+                i += width;
+            }
+        }
+    }
+
+    /**
+     * helper method to add one quad to the geometry of a block id
+     * @param builder - the geometry of the block id
+     * @param d - the axis the quad is perpendicular to
+     * @param u - the first axis of the quad
+     * @param v - the second axis of the quad
+     * @param s - the position of the quad along d
+     * @param i - the position of the quad along u
+     * @param j - the position of the quad along v
+     * @param width - the size of the quad along u
+     * @param height - the size of the quad along v
+     * @param positive - true if the quad looks along d, false if it looks against it
+     */
+    private static void addQuad(Builder builder, int d, int u, int v, int s, int i, int j, int width, int height, boolean positive) {
+        int first = builder.vertices.size();
+        int[] du = {0, width, width, 0};
+        int[] dv = {0, 0, height, height};
+        for (int corner = 0; corner < 4; corner++) {
+            // blocks are centered on their coordinates, so their faces lie halfway between them
+            float[] p = new float[3];
+            p[d] = s - 0.5f;
+            p[u] = i + du[corner] - 0.5f;
+            p[v] = j + dv[corner] - 0.5f;
+
+            // the texture coordinates count blocks, so the texture repeats once per block - side textures are kept upright
+            Vector2f textureCoord;
+            if (d == 0) {
+                textureCoord = new Vector2f(dv[corner], width - du[corner]);
+            } else if (d == 2) {
+                textureCoord = new Vector2f(du[corner], height - dv[corner]);
+            } else {
+                textureCoord = new Vector2f(dv[corner], du[corner]);
+            }
+            builder.vertices.add(new Vertex(new Vector3f(p[0], p[1], p[2]), textureCoord));
+        }
+
+        // the corners wind counter clockwise seen from the positive side, so faces looking against the axis are flipped
+        if (positive) {
+            builder.addTriangle(first, first + 1, first + 2);
+            builder.addTriangle(first + 2, first + 3, first);
+        } else {
+            builder.addTriangle(first, first + 2, first + 1);
+            builder.addTriangle(first + 2, first, first + 3);
+        }
+    }
+
+    /**
+     * getter method
+     * @return - the number of quads in the last meshed chunk
+     */
+    public int getQuads() {
+        return this.quads;
+    }
+
+    /**
+     * the geometry of one block id while it is being meshed
+     */
+    private static class Builder {
+
+        // the vertices of the quads
+        private List<Vertex> vertices = new ArrayList<>();
+
+        // the indices of the quads
+        private int[] indices = new int[96];
+        private int indexCount;
+
+        /**
+         * adds a triangle
+         * @param a - the index of the first vertex
+         * @param b - the index of the second vertex
+         * @param c - the index of the third vertex
+         */
+        private void addTriangle(int a, int b, int c) {
+            if (indexCount + 3 > indices.length) {
+                indices = Arrays.copyOf(indices, indices.length * 2);
+            }
+            indices[indexCount++] = a;
+            indices[indexCount++] = b;
+            indices[indexCount++] = c;
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.bramerlabs.engine.objects.voxel;
+
+import com.bramerlabs.engine.graphics.Material;
+import com.bramerlabs.engine.graphics.MaterialCache;
+import com.bramerlabs.engine.objects.CollisionWorld;
+import com.bramerlabs.engine.objects.Contact;
+import com.bramerlabs.engine.objects.Hitbox;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+public class VoxelWorld implements CollisionWorld {
+
+    // the number of bits used for each chunk coordinate in a chunk key
+    private static final int KEY_BITS = 21;
+    private static final long KEY_MASK = (1L << KEY_BITS) - 1;
+
+    // the chunks holding at least one block, keyed by the packed chunk coordinates
+    private Map<Long, Chunk> chunks = new HashMap<>();
+
+    // the material of each block id
+    private Material[] materials = new Material[16];
+
+    // the most recently used chunk, since lookups tend to hit the same chunk many times in a row
+    // it is checked by its own final coordinates, so meshing threads reading the world can share it safely
+    private Chunk lastChunk;
+
+    /**
+     * sets the texture blocks of an id are drawn with
+     * @param id - the block id, greater than AIR
+     * @param pathToTexture - the path to a texture laid out like the cube texture - top, sides and bottom
+     */
+    public void setMaterial(short id, String pathToTexture) {
+        if (id <= Chunk.AIR) {
+            throw new IllegalArgumentException("Block ids must be positive, got " + id);
+        }
+        if (id >= materials.length) {
+            materials = Arrays.copyOf(materials, Math.max(id + 1, materials.length * 2));
+        }
+        materials[id] = MaterialCache.get(pathToTexture);
+    }
+
+    /**
+     * getter method
+     * @param id - the block id
+     * @return - the material of the block id, or null if it has none
+     */
+    public Material getMaterial(short id) {
+        return id < materials.length ? materials[id] : null;
+    }
+
+    /**
+     * getter method - block (x, y, z) is a unit cube centered at (x, y, z), like a Cube
+     * @param x - the x position of the block
+     * @param y - the y position of the block
+     * @param z - the z position of the block
+     * @return - the id of the block, AIR if it has not been set
+     */
+    public short getBlock(int x, int y, int z) {
+        Chunk chunk = getChunk(x >> Chunk.SIZE_BITS, y >> Chunk.SIZE_BITS, z >> Chunk.SIZE_BITS);
+        return chunk == null ? Chunk.AIR : chunk.getBlock(x & Chunk.MASK, y & Chunk.MASK, z & Chunk.MASK);
+    }
+
+    /**
+     * sets a block, creating its chunk if needed - must not be called while other threads read the world - neighbouring chunks are marked dirty when a border block changes
+     * @param x - the x position of the block
+     * @param y - the y position of the block
+     * @param z - the z position of the block
+     * @param id - the id of the block, or AIR to clear it
+     */
+    public void setBlock(int x, int y, int z, short id) {
+        int cx = x >> Chunk.SIZE_BITS, cy = y >> Chunk.SIZE_BITS, cz = z >> Chunk.SIZE_BITS;
+        Chunk chunk = getChunk(cx, cy, cz);
+        if (chunk == null) {
+            if (id == Chunk.AIR) {
+                return;
+            }
+            chunk = new Chunk(cx, cy, cz);
+            chunks.put(key(cx, cy, cz), chunk);
+            lastChunk = null;
+        }
+        int lx = x & Chunk.MASK, ly = y & Chunk.MASK, lz = z & Chunk.MASK;
+        if (chunk.getBlock(lx, ly, lz) == id) {
+            return;
+        }
+        chunk.setBlock(lx, ly, lz, id);
+
+        // the faces of the neighbouring chunk touching this block may have been hidden or revealed
+        if (lx == 0) markDirty(cx - 1, cy, cz);
+        if (lx == Chunk.MASK) markDirty(cx + 1, cy, cz);
+        if (ly == 0) markDirty(cx, cy - 1, cz);
+        if (ly == Chunk.MASK) markDirty(cx, cy + 1, cz);
+        if (lz == 0) markDirty(cx, cy, cz - 1);
+        if (lz == Chunk.MASK) markDirty(cx, cy, cz + 1);
+    }
+
+    /**
+     * fills a box of blocks
+     * @param xMin - the smallest x position of the box
+     * @param xMax - the largest x position of the box, inclusive
+     * @param yMin - the smallest y position of the box
+     * @param yMax - the largest y position of the box, inclusive
+     * @param zMin - the smallest z position of the box
+     * @param zMax - the largest z position of the box, inclusive
+     * @param id - the id of the blocks
+     */
+    public void fill(int xMin, int xMax, int yMin, int yMax, int zMin, int zMax, short id) {
+        for (int y = yMin; y <= yMax; y++) {
+            for (int z = zMin; z <= zMax; z++) {
+                for (int x = xMin; x <= xMax; x++) {
+                    setBlock(x, y, z, id);
+                }
+            }
+        }
+    }
+
+    /**
+     * helper method to mark a chunk as needing to be meshed again, if it exists
+     * @param cx - the x position of the chunk, in chunks
+     * @param cy - the y position of the chunk, in chunks
+     * @param cz - the z position of the chunk, in chunks
+     */
+    private void markDirty(int cx, int cy, int cz) {
+        Chunk chunk = getChunk(cx, cy, cz);
+        if (chunk != null) {
+            chunk.setDirty(true);
+        }
+    }
+
+    /**
+     * getter method
+     * @param cx - the x position of the chunk, in chunks
+     * @param cy - the y position of the chunk, in chunks
+     * @param cz - the z position of the chunk, in chunks
+     * @return - the chunk, or null if it holds no blocks
+     */
+    public Chunk getChunk(int cx, int cy, int cz) {
+        Chunk last = lastChunk;
+        if (last != null && last.getChunkX() == cx && last.getChunkY() == cy && last.getChunkZ() == cz) {
+            return last;
+        }
+        Chunk chunk = chunks.get(key(cx, cy, cz));
+        if (chunk != null) {
+            lastChunk = chunk;
+        }
+        return chunk;
+    }
+
+    /**
+     * getter method
+     * @return - every chunk holding blocks
+     */
+    public Collection<Chunk> getChunks() {
+        return chunks.values();
+    }
+
+    /**
+     * checks if any solid block intersects a box, looking only at the blocks the box overlaps
+     * @param box - the box
+     * @return - true if the box overlaps a block that is not air
+     */
+    @Override
+    public boolean intersects(Hitbox box) {
+        // block x spans (x - 0.5, x + 0.5), so it overlaps the box if x > xMin - 0.5 and x < xMax + 0.5
+        int xMin = (int) Math.floor(box.xMin - 0.5f) + 1, xMax = (int) Math.ceil(box.xMax + 0.5f) - 1;
+        int yMin = (int) Math.floor(box.yMin - 0.5f) + 1, yMax = (int) Math.ceil(box.yMax + 0.5f) - 1;
+        int zMin = (int) Math.floor(box.zMin - 0.5f) + 1, zMax = (int) Math.ceil(box.zMax + 0.5f) - 1;
+        for (int y = yMin; y <= yMax; y++) {
+            for (int z = zMin; z <= zMax; z++) {
+                for (int x = xMin; x <= xMax; x++) {
+                    if (getBlock(x, y, z) != Chunk.AIR) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void sweep(Hitbox box, float dx, float dy, float dz, Contact contact) {
+        // only the blocks overlapping the box somewhere along its motion can be hit
+        int xMin = (int) Math.floor(Math.min(box.xMin, box.xMin + dx) - 0.5f) + 1, xMax = (int) Math.ceil(Math.max(box.xMax, box.xMax + dx) + 0.5f) - 1;
+        int yMin = (int) Math.floor(Math.min(box.yMin, box.yMin + dy) - 0.5f) + 1, yMax = (int) Math.ceil(Math.max(box.yMax, box.yMax + dy) + 0.5f) - 1;
+        int zMin = (int) Math.floor(Math.min(box.zMin, box.zMin + dz) - 0.5f) + 1, zMax = (int) Math.ceil(Math.max(box.zMax, box.zMax + dz) + 0.5f) - 1;
+        for (int y = yMin; y <= yMax; y++) {
+            for (int z = zMin; z <= zMax; z++) {
+                for (int x = xMin; x <= xMax; x++) {
+                    if (getBlock(x, y, z) != Chunk.AIR) {
+                        box.sweep(dx, dy, dz, x - 0.5f, x + 0.5f, y - 0.5f, y + 0.5f, z - 0.5f, z + 0.5f, Hitbox.IGNORE_FLAGS, contact);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * helper method to pack three chunk coordinates into one key
+     * @param cx - the x chunk coordinate
+     * @param cy - the y chunk coordinate
+     * @param cz - the z chunk coordinate
+     * @return - the key of the chunk
+     */
+    private static long key(int cx, int cy, int cz) {
+        return ((cx & KEY_MASK) << (2 * KEY_BITS)) | ((cy & KEY_MASK) << KEY_BITS) | (cz & KEY_MASK);
+    }
+}
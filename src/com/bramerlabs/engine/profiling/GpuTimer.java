@@ -0,0 +1,65 @@
+package com.bramerlabs.engine.profiling;
+
+import org.lwjgl.opengl.GL15;
+import org.lwjgl.opengl.GL33;
+
+public class GpuTimer {
+
+    // the number of frames a query may stay in flight before it is read
+    private static final int NUM_QUERIES = 4;
+
+    // the timer query objects, used round robin
+    private int[] queries = new int[NUM_QUERIES];
+
+    // true if a query has been started and its result not read yet
+    private boolean[] pending = new boolean[NUM_QUERIES];
+
+    // the query used by the current frame
+    private int current = 0;
+
+    // true if the current frame is being timed - it is not while its query still waits for the result of an older frame
+    private boolean running;
+
+    /**
+     * creates the query objects - must be called with a current GL context
+     */
+    public void create() {
+        GL15.glGenQueries(queries);
+    }
+
+    /**
+     * starts timing the GPU work of a frame - the frame goes untimed if every query is still waiting for its result
+     */
+    public void begin() {
+        // restarting a query whose result was not read would drop that result, so the query is not reused until it is read
+        running = !pending[current];
+        if (running) {
+            GL15.glBeginQuery(GL33.GL_TIME_ELAPSED, queries[current]);
+        }
+    }
+
+    /**
+     * stops timing the GPU work of a frame, and reports the oldest finished result without waiting for the GPU
+     * @param profiler - the profiler the result is recorded in
+     */
+    public void end(Profiler profiler) {
+        if (running) {
+            GL15.glEndQuery(GL33.GL_TIME_ELAPSED);
+            pending[current] = true;
+            current = (current + 1) % NUM_QUERIES;
+        }
+
+        // the oldest query is the next one to be reused - only a result that exists is recorded
+        if (pending[current] && GL15.glGetQueryObjecti(queries[current], GL15.GL_QUERY_RESULT_AVAILABLE) != 0) {
+            profiler.recordGpuTime(GL33.glGetQueryObjecti64(queries[current], GL15.GL_QUERY_RESULT));
+            pending[current] = false;
+        }
+    }
+
+    /**
+     * releases the query objects
+     */
+    public void destroy() {
+        GL15.glDeleteQueries(queries);
+    }
+}
@@ -0,0 +1,329 @@
+package com.bramerlabs.engine.profiling;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+public class Profiler implements ProfilerMXBean {
+
+    // the recorded metrics - use as the section or metric of the other methods
+    public static final int UPDATE = 0;
+    public static final int RENDER = 1;
+    public static final int SWAP = 2;
+    public static final int GPU = 3;
+    public static final int FRAME = 4;
+    public static final int DRAW_CALLS = 5;
+    public static final int STATE_CHANGES = 6;
+    public static final int ALLOCATED_BYTES = 7;
+    public static final int OBJECTS_DRAWN = 8;
+    public static final int OBJECTS_CULLED = 9;
+    public static final int NUM_METRICS = 10;
+
+    // the names of the metrics, used as CSV columns
+    private static final String[] NAMES = {
+            "update", "render", "swap", "gpu", "frame", "draw_calls", "state_changes", "allocated_bytes",
+            "objects_drawn", "objects_culled"
+    };
+
+    // the number of most recent frames kept for the percentiles and the CSV dump
+    private static final int CAPACITY = 4096;
+
+    // the name the profiler is published under
+    private static final String OBJECT_NAME = "com.bramerlabs.engine:type=Profiler";
+
+    // the recorded frames, as a ring buffer per metric
+    private long[][] samples = new long[NUM_METRICS][CAPACITY];
+
+    // the metrics of the frame being recorded
+    private long[] current = new long[NUM_METRICS];
+
+    // the start time of each running section
+    private long[] sectionStart = new long[NUM_METRICS];
+
+    // the number of frames recorded so far
+    private long frames;
+
+    // the GPU times, as their own ring buffer - a result is not ready every frame, so they are counted apart from the frames
+    private long[] gpuSamples = new long[CAPACITY];
+    private long gpuCount;
+
+    // the start time and allocation counter at the start of the frame being recorded
+    private long frameStart;
+    private long frameAllocationStart;
+
+    // used to read the allocation counter of the game thread, or null if the JVM does not have one
+    private com.sun.management.ThreadMXBean threads;
+
+    // scratch memory for sorting a metric when computing percentiles
+    private long[] sorted = new long[CAPACITY];
+
+    /**
+     * default constructor
+     */
+    public Profiler() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()) {
+            threads = (com.sun.management.ThreadMXBean) bean;
+            threads.setThreadAllocatedMemoryEnabled(true);
+        }
+    }
+
+    /**
+     * publishes the profiler over JMX
+     */
+    public void register() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, new javax.management.ObjectName(OBJECT_NAME));
+        } catch (Exception e) {
+            e.printStackTrace();
+            System.err.println("Error: could not register the profiler.");
+        }
+    }
+
+    /**
+     * removes the profiler from JMX
+     */
+    public void unregister() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(new javax.management.ObjectName(OBJECT_NAME));
+        } catch (Exception e) {
+            e.printStackTrace();
+            System.err.println("Error: could not unregister the profiler.");
+        }
+    }
+
+    /**
+     * starts recording a frame - must be called on the game thread
+     */
+    public void beginFrame() {
+        Arrays.fill(current, 0);
+
+        // marks a frame no GPU time arrived in, so it is left out rather than counted as 0
+        current[GPU] = -1;
+        frameStart = System.nanoTime();
+        frameAllocationStart = allocatedBytes();
+    }
+
+    /**
+     * starts timing a section of the frame
+     * @param section - the section, UPDATE, RENDER or SWAP
+     */
+    public void begin(int section) {
+        sectionStart[section] = System.nanoTime();
+    }
+
+    /**
+     * stops timing a section of the frame - a section timed more than once in a frame is summed
+     * @param section - the section, UPDATE, RENDER or SWAP
+     */
+    public void end(int section) {
+        current[section] += System.nanoTime() - sectionStart[section];
+    }
+
+    /**
+     * records the time the GPU spent on a frame - GPU times arrive a few frames late, and are recorded with the current frame
+     * @param nanos - the GPU time
+     */
+    public synchronized void recordGpuTime(long nanos) {
+        current[GPU] = Math.max(current[GPU], 0) + nanos;
+        gpuSamples[(int) (gpuCount % CAPACITY)] = nanos;
+        gpuCount++;
+    }
+
+    /**
+     * adds to the draw call and state change counts of the current frame
+     * @param drawCalls - the number of draw calls
+     * @param stateChanges - the number of shader, texture and vertex array binds
+     */
+    public void recordDraws(long drawCalls, long stateChanges) {
+        current[DRAW_CALLS] += drawCalls;
+        current[STATE_CHANGES] += stateChanges;
+    }
+
+    /**
+     * adds to the drawn and culled object counts of the current frame
+     * @param drawn - the number of objects drawn
+     * @param culled - the number of objects skipped for being outside the view
+     */
+    public void recordCulling(long drawn, long culled) {
+        current[OBJECTS_DRAWN] += drawn;
+        current[OBJECTS_CULLED] += culled;
+    }
+
+    /**
+     * finishes recording a frame
+     */
+    public synchronized void endFrame() {
+        current[FRAME] = System.nanoTime() - frameStart;
+        current[ALLOCATED_BYTES] = allocatedBytes() - frameAllocationStart;
+
+        int index = (int) (frames % CAPACITY);
+        for (int i = 0; i < NUM_METRICS; i++) {
+            samples[i][index] = current[i];
+        }
+        frames++;
+    }
+
+    /**
+     * helper method to read the allocation counter of the current thread
+     * @return - the bytes allocated by this thread so far, or 0 if unsupported
+     */
+    private long allocatedBytes() {
+        return threads == null ? 0 : threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * computes a percentile of one metric over the held frames - GPU times are taken over the held GPU results instead
+     * @param metric - the metric
+     * @param percentile - the percentile, from 0 to 100
+     * @return - the raw value of the percentile, nanoseconds for times
+     */
+    public synchronized long percentile(int metric, double percentile) {
+        long[] values = metric == GPU ? gpuSamples : samples[metric];
+        int count = (int) Math.min(metric == GPU ? gpuCount : frames, CAPACITY);
+        if (count == 0) {
+            return 0;
+        }
+        System.arraycopy(values, 0, sorted, 0, count);
+        Arrays.sort(sorted, 0, count);
+        int rank = (int) Math.ceil(percentile / 100.0 * count) - 1;
+        return sorted[Math.max(0, Math.min(count - 1, rank))];
+    }
+
+    /**
+     * helper method to compute a percentile of a time metric in milliseconds
+     * @param metric - the time metric
+     * @param percentile - the percentile, from 0 to 100
+     * @return - the percentile in milliseconds
+     */
+    private double millis(int metric, double percentile) {
+        return percentile(metric, percentile) / 1e6;
+    }
+
+    /**
+     * helper method to get the value of a metric in the last recorded frame
+     * @param metric - the metric
+     * @return - the value
+     */
+    private long last(int metric) {
+        return frames == 0 ? 0 : samples[metric][(int) ((frames - 1) % CAPACITY)];
+    }
+
+    /**
+     * creates a short summary of the frame times, used for the window title
+     * @return - the summary
+     */
+    public String getSummary() {
+        double p50 = millis(FRAME, 50);
+        return String.format("FPS: %.0f | frame p50 %.2f ms, p99 %.2f ms, max %.2f ms | GPU p99 %.2f ms | %d draws | %d drawn, %d culled",
+                p50 > 0 ? 1000 / p50 : 0, p50, millis(FRAME, 99), millis(FRAME, 100), millis(GPU, 99), last(DRAW_CALLS),
+                last(OBJECTS_DRAWN), last(OBJECTS_CULLED));
+    }
+
+    @Override
+    public long getFrameCount() {
+        return frames;
+    }
+
+    @Override
+    public long getGpuSampleCount() {
+        return gpuCount;
+    }
+
+    @Override
+    public double getFrameTimeP50() {
+        return millis(FRAME, 50);
+    }
+
+    @Override
+    public double getFrameTimeP99() {
+        return millis(FRAME, 99);
+    }
+
+    @Override
+    public double getFrameTimeMax() {
+        return millis(FRAME, 100);
+    }
+
+    @Override
+    public double getUpdateTimeP99() {
+        return millis(UPDATE, 99);
+    }
+
+    @Override
+    public double getRenderTimeP99() {
+        return millis(RENDER, 99);
+    }
+
+    @Override
+    public double getSwapTimeP99() {
+        return millis(SWAP, 99);
+    }
+
+    @Override
+    public double getGpuTimeP99() {
+        return millis(GPU, 99);
+    }
+
+    @Override
+    public long getDrawCalls() {
+        return last(DRAW_CALLS);
+    }
+
+    @Override
+    public long getStateChanges() {
+        return last(STATE_CHANGES);
+    }
+
+    @Override
+    public long getObjectsDrawn() {
+        return last(OBJECTS_DRAWN);
+    }
+
+    @Override
+    public long getObjectsCulled() {
+        return last(OBJECTS_CULLED);
+    }
+
+    @Override
+    public long getAllocatedBytesP50() {
+        return percentile(ALLOCATED_BYTES, 50);
+    }
+
+    @Override
+    public double percentile(String metric, double percentile) {
+        for (int i = 0; i < NUM_METRICS; i++) {
+            if (NAMES[i].equals(metric)) {
+                return i <= FRAME ? millis(i, percentile) : percentile(i, percentile);
+            }
+        }
+        throw new IllegalArgumentException("Unknown metric: " + metric);
+    }
+
+    @Override
+    public synchronized void dumpCsv(String path) {
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(Paths.get(path)))) {
+            writer.println("index," + String.join(",", NAMES));
+            long first = Math.max(0, frames - CAPACITY);
+            for (long frame = first; frame < frames; frame++) {
+                int index = (int) (frame % CAPACITY);
+                writer.print(frame);
+                for (int i = 0; i < NUM_METRICS; i++) {
+                    writer.print(',');
+
+                    // a frame no GPU time arrived in has an empty gpu column
+                    if (samples[i][index] >= 0) {
+                        writer.print(samples[i][index]);
+                    }
+                }
+                writer.println();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write profile to " + path, e);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.bramerlabs.engine.profiling;
+
+/**
+ * the management interface of the profiler, published over JMX
+ * all times are in milliseconds and cover the frames the profiler currently holds
+ */
+public interface ProfilerMXBean {
+
+    /**
+     * getter method
+     * @return - the number of frames recorded since the profiler was created
+     */
+    long getFrameCount();
+
+    /**
+     * getter method
+     * @return - the number of GPU times recorded since the profiler was created - frames whose GPU time was not ready are not counted
+     */
+    long getGpuSampleCount();
+
+    /**
+     * getter method
+     * @return - the median frame time
+     */
+    double getFrameTimeP50();
+
+    /**
+     * getter method
+     * @return - the 99th percentile frame time
+     */
+    double getFrameTimeP99();
+
+    /**
+     * getter method
+     * @return - the longest frame time
+     */
+    double getFrameTimeMax();
+
+    /**
+     * getter method
+     * @return - the 99th percentile time spent updating the simulation in one frame
+     */
+    double getUpdateTimeP99();
+
+    /**
+     * getter method
+     * @return - the 99th percentile time spent submitting draw calls in one frame
+     */
+    double getRenderTimeP99();
+
+    /**
+     * getter method
+     * @return - the 99th percentile time spent swapping buffers in one frame
+     */
+    double getSwapTimeP99();
+
+    /**
+     * getter method
+     * @return - the 99th percentile time the GPU spent drawing one frame, over the frames whose GPU time was read
+     */
+    double getGpuTimeP99();
+
+    /**
+     * getter method
+     * @return - the number of draw calls in the last frame
+     */
+    long getDrawCalls();
+
+    /**
+     * getter method
+     * @return - the number of shader, texture and vertex array binds in the last frame
+     */
+    long getStateChanges();
+
+    /**
+     * getter method
+     * @return - the number of objects drawn in the last frame
+     */
+    long getObjectsDrawn();
+
+    /**
+     * getter method
+     * @return - the number of objects skipped for being outside the view in the last frame
+     */
+    long getObjectsCulled();
+
+    /**
+     * getter method
+     * @return - the median number of bytes allocated by the game thread per frame
+     */
+    long getAllocatedBytesP50();
+
+    /**
+     * computes a percentile of one metric
+     * @param metric - the name of the metric, one of the CSV column names
+     * @param percentile - the percentile, from 0 to 100
+     * @return - the value of the percentile, in milliseconds for times
+     */
+    double percentile(String metric, double percentile);
+
+    /**
+     * writes every held frame to a CSV file, with times in nanoseconds
+     * @param path - the path of the file to write
+     */
+    void dumpCsv(String path);
+}